@@ -1,5 +1,6 @@
 package com.example.Product.Service.config;
 
+import com.example.Product.Service.dto.CursorPage;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
@@ -19,6 +20,7 @@ public class CorsConfig {
         config.setAllowedOrigins(List.of("http://localhost:5173"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of(CursorPage.NEXT_CURSOR_HEADER));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source =
@@ -1,9 +1,9 @@
 package com.example.Product.Service.config;
 
 import com.example.Product.Service.filter.JWTFilter;
-import com.example.Product.Service.repository.ManagerRepo;
-import com.example.Product.Service.repository.UserRepo;
-import com.example.Product.Service.util.JWTUtil;
+import com.example.Product.Service.service.PrincipalCache;
+import com.example.Product.Service.util.TokenVerifier;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -24,22 +24,19 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
 
-    private final JWTUtil jwtUtil;
-    private final UserRepo userRepo;
-    private final ManagerRepo managerRepo;
+    private final TokenVerifier tokenVerifier;
+    private final PrincipalCache principalCache;
 
     public SecurityConfig(
-            JWTUtil jwtUtil,
-            UserRepo userRepo,
-            ManagerRepo managerRepo
+            TokenVerifier tokenVerifier,
+            PrincipalCache principalCache
     ) {
-        this.jwtUtil = jwtUtil;
-        this.userRepo = userRepo;
-        this.managerRepo = managerRepo;
+        this.tokenVerifier = tokenVerifier;
+        this.principalCache = principalCache;
     }
     @Bean
     public JWTFilter jwtFilter() {
-        return new JWTFilter(jwtUtil, userRepo, managerRepo);
+        return new JWTFilter(tokenVerifier, principalCache);
     }
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception{
@@ -49,7 +46,14 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth ->
                         auth
                                 .requestMatchers(HttpMethod.POST,"/login").permitAll()
+                                .requestMatchers(HttpMethod.POST,"/refresh").permitAll()
+                                // scraped without a token, keep the management port off public networks
+                                .requestMatchers(HttpMethod.GET,"/actuator/health","/actuator/prometheus").permitAll()
+                                // bulk intake is for partner call centres, not the public complain form
+                                .requestMatchers(HttpMethod.POST,"/complain/generatecomplains").authenticated()
                                 .requestMatchers("/complain/**").permitAll()
+                                // re-dispatch of an already authorized async request (the /events stream, /login)
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 .anyRequest().authenticated())
 //                .httpBasic(Customizer.withDefaults())
                 .addFilterBefore(jwtFilter(), UsernamePasswordAuthenticationFilter.class)
@@ -2,20 +2,45 @@ package com.example.Product.Service.controller;
 
 import com.example.Product.Service.dto.AuthInputDto;
 import com.example.Product.Service.dto.ComplainOutputDto;
+import com.example.Product.Service.dto.CursorPage;
 import com.example.Product.Service.dto.UserInputDto;
 import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.enums.ExportFormat;
+import com.example.Product.Service.service.ComplainConflictException;
+import com.example.Product.Service.service.ComplainNotFoundException;
+import com.example.Product.Service.service.PasswordHashingExecutor;
+import com.example.Product.Service.service.RefreshTokenService;
 import com.example.Product.Service.service.UserService;
+import com.example.Product.Service.util.ETags;
 import com.example.Product.Service.util.JWTUtil;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 public class AuthController {
@@ -25,16 +50,69 @@ public class AuthController {
     private JWTUtil jwtUtil;
     @Autowired
     private AuthenticationManager manager;
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor applicationTaskExecutor;
+    @Value("${security.refresh-token.cookie-secure:true}")
+    private boolean refreshCookieSecure;
+    @Value("${complain.export.timeout:30m}")
+    private Duration exportTimeout;
+    public static final String REFRESH_COOKIE = "refresh_token";
+    // the password check runs on the hashing pool, the request thread is released while it waits;
+    // the tokens are issued on the task executor so the hashing threads only hash
     @PostMapping("/login")
-    public ResponseEntity<String> getToken(@RequestBody AuthInputDto authInputDto){
+    public CompletableFuture<ResponseEntity<String>> getToken(@RequestBody AuthInputDto authInputDto){
         try{
-            manager.authenticate(
-            new UsernamePasswordAuthenticationToken(authInputDto.getUsername(),
-                    authInputDto.getPassword()));
-            return ResponseEntity.ok(jwtUtil.generateToken(authInputDto.getUsername()));
-        }catch(Exception e){
-            return ResponseEntity.badRequest().body(e.getMessage());
+            return passwordHashingExecutor.submit(() -> manager.authenticate(
+                    new UsernamePasswordAuthenticationToken(authInputDto.getUsername(),
+                            authInputDto.getPassword())))
+                    .handleAsync((authentication, e) -> {
+                        if(e == null){
+                            String refreshToken = refreshTokenService.issue(authInputDto.getUsername());
+                            return ResponseEntity.ok()
+                                    .header(HttpHeaders.SET_COOKIE, refreshCookie(refreshToken, refreshTokenService.getTtl()))
+                                    .body(jwtUtil.generateToken(authInputDto.getUsername()));
+                        }
+                        Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                        if(cause instanceof TimeoutException){
+                            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                    .header(HttpHeaders.RETRY_AFTER, "1").body("Login Timed Out, Try Again!!");
+                        }
+                        return ResponseEntity.badRequest().body(cause.getMessage());
+                    }, applicationTaskExecutor);
+        }catch(RejectedExecutionException e){
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1").body("Too Many Login Attempts, Try Again!!"));
+        }
+    }
+    // new access token for a refresh token cookie, no password check involved
+    @PostMapping("/refresh")
+    public ResponseEntity<String> refresh(@CookieValue(name = REFRESH_COOKIE, required = false) String refreshToken){
+        if(refreshToken == null){
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Refresh Token Missing!!");
         }
+        return refreshTokenService.rotate(refreshToken)
+                .map(tokens -> ResponseEntity.ok()
+                        .header(HttpHeaders.SET_COOKIE, refreshCookie(tokens.getRefreshToken(), refreshTokenService.getTtl()))
+                        .body(tokens.getAccessToken()))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .header(HttpHeaders.SET_COOKIE, refreshCookie("", Duration.ZERO))
+                        .body("Invalid Refresh Token!!"));
+    }
+    private String refreshCookie(String value, Duration maxAge){
+        // only ever sent to /refresh and never readable from scripts
+        return ResponseCookie.from(REFRESH_COOKIE, value)
+                .httpOnly(true)
+                .secure(refreshCookieSecure)
+                .sameSite("Strict")
+                .path("/refresh")
+                .maxAge(maxAge)
+                .build()
+                .toString();
     }
     @GetMapping("/getuser")
     public ResponseEntity<?> getUser(Principal principal){
@@ -60,21 +138,117 @@ public class AuthController {
         }
     }
     @GetMapping("/getallcomplain")
-    public ResponseEntity<List<String>> getAllComplainByStatus(@RequestParam String status){
-        return ResponseEntity.ok(userService.getAllComplainByStatus(status));
+    public ResponseEntity<?> getAllComplainByStatus(@RequestParam String status,@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size){
+        try{
+            CursorPage<String> page = userService.getAllComplainByStatus(status,cursor,size);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                    .eTag(ETags.strong(List.of(page.getItems(), String.valueOf(page.getNextCursor()))));
+            if(page.getNextCursor() != null){
+                response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    // per complain outcome: APPLIED, WRONG_STATE (not PENDING) or NOT_FOUND
+    @PutMapping("/bulk/assignmanager")
+    public ResponseEntity<?> bulkAssignManager(@RequestBody List<String> complainNumbers, @RequestParam String managerUsername,
+                                               Principal principal){
+        try{
+            return ResponseEntity.ok(userService.bulkAssignManager(complainNumbers,managerUsername,principal));
+        }catch (RuntimeException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    // per complain outcome: APPLIED, WRONG_STATE (not IN_PROCESS) or NOT_FOUND
+    @PutMapping("/bulk/close")
+    public ResponseEntity<?> bulkSetComplainClosed(@RequestBody List<String> complainNumbers, Principal principal){
+        try{
+            return ResponseEntity.ok(userService.bulkSetComplainClosed(complainNumbers,principal));
+        }catch (RuntimeException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    // assigns pending complains to the least loaded managers now, returns how many
+    @PostMapping("/autoassign")
+    public ResponseEntity<?> autoAssign(Principal principal){
+        try{
+            return ResponseEntity.ok(userService.autoAssign(principal));
+        }catch (RuntimeException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    // full-text search over complain text, address, username, email and response; status is optional
+    @GetMapping("/search")
+    public ResponseEntity<?> searchComplains(@RequestParam String q, @RequestParam(required = false) String status,
+                                             @RequestParam(required = false) Integer limit, Principal principal){
+        try{
+            return ResponseEntity.ok(userService.searchComplains(q,status,limit,principal));
+        }catch (RuntimeException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    // streams every matching complain as a download, all filters optional; dates are yyyy-MM-dd, inclusive.
+    // The export is written inside a WebAsyncTask so it has its own timeout, not the one of every async request
+    @GetMapping("/export")
+    public WebAsyncTask<ResponseEntity<String>> exportComplains(@RequestParam(required = false)
+                                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam(required = false)
+                                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                @RequestParam(required = false) String status,
+                                                                @RequestParam(required = false) String managerUsername,
+                                                                @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                                @RequestParam(defaultValue = "false") boolean gzip,
+                                                                Principal principal, HttpServletResponse response){
+        try{
+            StreamingResponseBody body = userService.exportComplains(from,to,status,managerUsername,format,gzip,principal);
+            String fileName = "complains." + format.getExtension() + (gzip ? ".gz" : "");
+            response.setHeader(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : format.getContentType() + ";charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+            return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+                body.writeTo(response.getOutputStream());
+                // written straight to the response, there is nothing left to render
+                return null;
+            });
+        }catch (RuntimeException e){
+            return new WebAsyncTask<>(() -> ResponseEntity.badRequest().body(e.getMessage()));
+        }
+    }
+    // counts from the in-memory aggregate, instead of downloading every number list
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats(Principal principal){
+        try{
+            return ResponseEntity.ok(userService.getStats(principal));
+        }catch (RuntimeException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     @GetMapping("/getallmanager")
     public ResponseEntity<List<String>> getAllManagers(){
         return ResponseEntity.ok(userService.getAllManager());
     }
     @PutMapping("/assignmanager")
-    public ResponseEntity<Void> assignManager(@RequestParam String complainNumber, @RequestParam String managerUsername ){
-        userService.assignManager(complainNumber,managerUsername);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+    public ResponseEntity<?> assignManager(@RequestParam String complainNumber, @RequestParam String managerUsername ){
+        try{
+            userService.assignManager(complainNumber,managerUsername);
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        }catch (ComplainConflictException e){
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }catch (ComplainNotFoundException | UsernameNotFoundException e){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
     }
     @PutMapping("/closecomplain")
-    public ResponseEntity<Void> closeComplain(@RequestParam String complainNumber){
-        userService.setComplainClosed(complainNumber);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+    public ResponseEntity<?> closeComplain(@RequestParam String complainNumber){
+        try{
+            userService.setComplainClosed(complainNumber);
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        }catch (ComplainConflictException e){
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }catch (ComplainNotFoundException | UsernameNotFoundException e){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
     }
 }
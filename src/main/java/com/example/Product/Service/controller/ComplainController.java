@@ -3,32 +3,86 @@ package com.example.Product.Service.controller;
 import com.example.Product.Service.dto.ComplainInputDto;
 import com.example.Product.Service.dto.ComplainOutputDto;
 import com.example.Product.Service.service.ComplainService;
+import com.example.Product.Service.util.ETags;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
 @RequestMapping("/complain")
 @CrossOrigin("http://localhost:5173")
 public class ComplainController {
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired
     private ComplainService complainService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Value("${complain.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+    @Value("${complain.bulk.max-size:10000}")
+    private int bulkMaxSize;
+
     @PostMapping("/generatecomplain")
     public ResponseEntity<String> authenticatedController(@RequestBody ComplainInputDto complainInputDto){
             return ResponseEntity.ok(complainService.addComplain(complainInputDto));
     }
+    // partner intake, admin token only. A JSON array and NDJSON are both read one complain at a time,
+    // so a request over bulkMaxSize is refused before the rest of it is parsed
+    @PostMapping(value = "/generatecomplains", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<?> generateComplains(InputStream body, Principal principal) throws IOException {
+        if(!principal.getName().equals("admin")){
+            return ResponseEntity.badRequest().body("Unauthorized User!!");
+        }
+        List<ComplainInputDto> complainInputDtos = new ArrayList<>();
+        try(MappingIterator<ComplainInputDto> complains = objectMapper.readerFor(ComplainInputDto.class).readValues(body)){
+            while(complains.hasNextValue()){
+                if(complainInputDtos.size() == bulkMaxSize){
+                    return ResponseEntity.badRequest().body("At most " + bulkMaxSize + " complains per request!!");
+                }
+                complainInputDtos.add(complains.nextValue());
+            }
+        }catch (JsonProcessingException e){
+            return ResponseEntity.badRequest().body(e.getOriginalMessage());
+        }
+        return ResponseEntity.ok(addInChunks(complainInputDtos));
+    }
+    private List<String> addInChunks(List<ComplainInputDto> complainInputDtos){
+        List<String> complainNumbers = new ArrayList<>(complainInputDtos.size());
+        for(int from = 0; from < complainInputDtos.size(); from += bulkChunkSize){
+            int to = Math.min(from + bulkChunkSize, complainInputDtos.size());
+            complainNumbers.addAll(complainService.addComplains(complainInputDtos.subList(from, to)));
+        }
+        return complainNumbers;
+    }
     @GetMapping("/getcomplain")
     public ResponseEntity<?> getComplainById(@RequestParam String complainNumber){
         try{
-            return ResponseEntity.ok(complainService.getComplainByComplainNumber(complainNumber));
+            ComplainOutputDto complain = complainService.getComplainByComplainNumber(complainNumber);
+            // a matching If-None-Match gets a 304 before the body is written
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                    .eTag(ETags.strong(List.of(complain.getComplainNumber(), complain.getVersion(),
+                            String.valueOf(complain.getManagerVersion()))))
+                    .body(complain);
         }catch (Exception e){
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     @GetMapping("/searchcomplain")
-    public ResponseEntity<List<ComplainOutputDto>> getComplainByStatusAndNumber(@RequestParam String status,@RequestParam String complainNumber){
-        return ResponseEntity.ok(complainService.getComplainByComplainNumberAndStatus(status,complainNumber));
+    public ResponseEntity<List<ComplainOutputDto>> getComplainByStatusAndNumber(@RequestParam String status,@RequestParam String complainNumber,
+                                                                                @RequestParam(required = false) Integer limit){
+        return ResponseEntity.ok(complainService.getComplainByComplainNumberAndStatus(status,complainNumber,limit));
     }
 }
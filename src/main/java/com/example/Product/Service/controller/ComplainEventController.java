@@ -0,0 +1,24 @@
+package com.example.Product.Service.controller;
+
+import com.example.Product.Service.service.ComplainEventHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+
+@RestController
+public class ComplainEventController {
+    @Autowired
+    private ComplainEventHub complainEventHub;
+
+    // EventSource cannot set headers: the JWT may come as ?access_token= on this path (see JWTFilter)
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(Principal principal, @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId){
+        String managerUsername = principal.getName().equals("admin") ? null : principal.getName();
+        return complainEventHub.subscribe(managerUsername, lastEventId);
+    }
+}
@@ -1,15 +1,21 @@
 package com.example.Product.Service.controller;
 
 import com.example.Product.Service.dto.ComplainOutputDto;
+import com.example.Product.Service.dto.CursorPage;
 import com.example.Product.Service.dto.UserInputDto;
 import com.example.Product.Service.dto.UserOutputDto;
 import com.example.Product.Service.model.Complain;
+import com.example.Product.Service.service.ComplainConflictException;
+import com.example.Product.Service.service.ComplainNotFoundException;
 import com.example.Product.Service.service.ManagerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.security.Principal;
 import java.util.List;
@@ -28,12 +34,43 @@ public class ManagerController {
         return ResponseEntity.ok(managerService.addManager(userInputDto));
     }
     @GetMapping("/getcomplain")
-    public ResponseEntity<List<ComplainOutputDto>> getComplain(Principal principal){
-        return ResponseEntity.ok(managerService.getComplainByManager(principal.getName()));
+    public ResponseEntity<?> getComplain(Principal principal,@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size, WebRequest webRequest){
+        try{
+            // versions only first: an unchanged page is a 304 without loading the rows
+            String eTag = managerService.getComplainByManagerETag(principal.getName(),cursor,size);
+            if(webRequest.checkNotModified(eTag)){
+                return null;
+            }
+            CursorPage<ComplainOutputDto> page = managerService.getComplainByManager(principal.getName(),cursor,size);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag);
+            if(page.getNextCursor() != null){
+                response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    // only the caller's own IN_PROCESS complains are answered, others come back WRONG_STATE or NOT_FOUND
+    @PutMapping("/bulk/addresponse")
+    public ResponseEntity<?> bulkAddResponse(@RequestBody List<String> complainNumbers, @RequestParam String response,
+                                             Principal principal){
+        try{
+            return ResponseEntity.ok(managerService.bulkAddResponse(response,complainNumbers,principal));
+        }catch (RuntimeException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     @PutMapping("/addresponse")
-    public ResponseEntity<Void> addResponse(@RequestParam String complainNumber,@RequestParam String response){
-        managerService.addResponse(response,complainNumber);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+    public ResponseEntity<?> addResponse(@RequestParam String complainNumber,@RequestParam String response,Principal principal){
+        try{
+            managerService.addResponse(response,complainNumber,principal);
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        }catch (ComplainConflictException e){
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }catch (ComplainNotFoundException | UsernameNotFoundException e){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
     }
 }
@@ -0,0 +1,15 @@
+package com.example.Product.Service.dto;
+
+import com.example.Product.Service.enums.BulkOutcome;
+import com.example.Product.Service.enums.ComplainStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkItemResult {
+    private String complainNumber;
+    private BulkOutcome outcome;
+    // after the operation; null when not found
+    private ComplainStatus status;
+}
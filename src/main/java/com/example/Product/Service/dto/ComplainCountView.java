@@ -0,0 +1,28 @@
+package com.example.Product.Service.dto;
+
+import com.example.Product.Service.enums.ComplainStatus;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * One group of a count query: by manager and status, or by day.
+ */
+@Data
+public class ComplainCountView {
+    private String managerUsername;
+    private ComplainStatus status;
+    private LocalDate complainDate;
+    private long count;
+
+    public ComplainCountView(String managerUsername, ComplainStatus status, long count) {
+        this.managerUsername = managerUsername;
+        this.status = status;
+        this.count = count;
+    }
+
+    public ComplainCountView(LocalDate complainDate, long count) {
+        this.complainDate = complainDate;
+        this.count = count;
+    }
+}
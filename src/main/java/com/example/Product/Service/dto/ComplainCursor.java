@@ -0,0 +1,33 @@
+package com.example.Product.Service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Keyset position in the stable (complainDate, id) order, passed to clients as an opaque string.
+ */
+@Data
+@AllArgsConstructor
+public class ComplainCursor {
+    private LocalDate complainDate;
+    private Long id;
+
+    public String encode(){
+        String raw = complainDate + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ComplainCursor decode(String cursor){
+        try{
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new ComplainCursor(LocalDate.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        }catch (RuntimeException e){
+            throw new IllegalArgumentException("Invalid Cursor!!");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.Product.Service.dto;
+
+import com.example.Product.Service.enums.ComplainEventType;
+import com.example.Product.Service.enums.ComplainStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComplainEvent {
+    // also the SSE id, increasing; clients resume with Last-Event-ID
+    private long id;
+    private ComplainEventType type;
+    private String complainNumber;
+    private ComplainStatus status;
+    // null until the complain is assigned
+    private String managerUsername;
+    private Instant at;
+}
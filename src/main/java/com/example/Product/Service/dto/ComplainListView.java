@@ -0,0 +1,30 @@
+package com.example.Product.Service.dto;
+
+import com.example.Product.Service.enums.ComplainStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Columns of a complain listing row, read with the manager in one joined select.
+ */
+@Data
+@AllArgsConstructor
+public class ComplainListView {
+    private Long id;
+    private LocalDate complainDate;
+    private String complainNumber;
+    private String username;
+    private Long mobile;
+    private String email;
+    private String address;
+    private String complain;
+    private ComplainStatus status;
+    private String complainResponse;
+    private String managerName;
+    private String managerEmail;
+    private Long managerMobile;
+    private Long version;
+    private Long managerVersion;
+}
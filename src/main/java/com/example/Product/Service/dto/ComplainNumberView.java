@@ -0,0 +1,17 @@
+package com.example.Product.Service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Just enough of a complain for number listings plus the keyset (complainDate, id).
+ */
+@Data
+@AllArgsConstructor
+public class ComplainNumberView {
+    private Long id;
+    private LocalDate complainDate;
+    private String complainNumber;
+}
@@ -1,13 +1,18 @@
 package com.example.Product.Service.dto;
 
 import com.example.Product.Service.enums.ComplainStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ComplainOutputDto {
     private String complainNumber;
     private String username;
@@ -21,4 +26,9 @@ public class ComplainOutputDto {
     private String managerName;
     private String managerEmail;
     private Long managerMobile;
+    // for the ETag only, not part of the response body
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private Long managerVersion;
 }
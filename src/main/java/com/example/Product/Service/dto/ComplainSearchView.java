@@ -0,0 +1,20 @@
+package com.example.Product.Service.dto;
+
+import com.example.Product.Service.enums.ComplainStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The searchable fields of a complain, as the search index reads them.
+ */
+@Data
+@AllArgsConstructor
+public class ComplainSearchView {
+    private String complainNumber;
+    private String username;
+    private String email;
+    private String address;
+    private String complain;
+    private String complainResponse;
+    private ComplainStatus status;
+}
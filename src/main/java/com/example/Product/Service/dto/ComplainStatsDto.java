@@ -0,0 +1,18 @@
+package com.example.Product.Service.dto;
+
+import com.example.Product.Service.enums.ComplainStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class ComplainStatsDto {
+    private Map<ComplainStatus, Long> byStatus;
+    // assigned complains only, by manager username
+    private Map<String, Map<ComplainStatus, Long>> byManager;
+    // complains filed per day, the last complain.stats.days days
+    private Map<LocalDate, Long> byDay;
+}
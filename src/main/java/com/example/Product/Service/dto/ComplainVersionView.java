@@ -0,0 +1,19 @@
+package com.example.Product.Service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Just enough of a listing row to tell whether the page changed: its key and the versions
+ * of the complain and its manager.
+ */
+@Data
+@AllArgsConstructor
+public class ComplainVersionView {
+    private Long id;
+    private LocalDate complainDate;
+    private Long version;
+    private Long managerVersion;
+}
@@ -0,0 +1,15 @@
+package com.example.Product.Service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A manager and how many IN_PROCESS complains they have open.
+ */
+@Data
+@AllArgsConstructor
+public class ManagerLoadView {
+    private Long managerId;
+    private String username;
+    private long open;
+}
@@ -0,0 +1,11 @@
+package com.example.Product.Service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TokenPair {
+    private String accessToken;
+    private String refreshToken;
+}
@@ -0,0 +1,7 @@
+package com.example.Product.Service.enums;
+
+public enum BulkOutcome {
+    APPLIED,
+    WRONG_STATE,
+    NOT_FOUND
+}
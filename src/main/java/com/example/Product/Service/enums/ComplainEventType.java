@@ -0,0 +1,8 @@
+package com.example.Product.Service.enums;
+
+public enum ComplainEventType {
+    CREATED,
+    ASSIGNED,
+    RESPONDED,
+    CLOSED
+}
@@ -0,0 +1,7 @@
+package com.example.Product.Service.enums;
+
+public enum MailStatus {
+    PENDING,
+    SENT,
+    DEAD
+}
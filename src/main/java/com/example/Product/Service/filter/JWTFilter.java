@@ -1,8 +1,8 @@
 package com.example.Product.Service.filter;
 
-import com.example.Product.Service.repository.ManagerRepo;
-import com.example.Product.Service.repository.UserRepo;
-import com.example.Product.Service.util.JWTUtil;
+import com.example.Product.Service.service.PrincipalCache;
+import com.example.Product.Service.util.TokenVerifier;
+import com.example.Product.Service.util.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,14 +21,13 @@ import java.io.IOException;
 
 //@Component
 public class JWTFilter extends OncePerRequestFilter {
-    private final JWTUtil jWTUtil;
-    private final UserRepo userRepo;
-    private final ManagerRepo managerRepo;
+    private static final String EVENTS_PATH = "/events";
+    private final TokenVerifier tokenVerifier;
+    private final PrincipalCache principalCache;
 
-    public JWTFilter(JWTUtil jWTUtil, UserRepo userRepo, ManagerRepo managerRepo) {
-        this.jWTUtil = jWTUtil;
-        this.userRepo = userRepo;
-        this.managerRepo = managerRepo;
+    public JWTFilter(TokenVerifier tokenVerifier, PrincipalCache principalCache) {
+        this.tokenVerifier = tokenVerifier;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -38,21 +37,19 @@ public class JWTFilter extends OncePerRequestFilter {
         String username = null;
         if(header != null && header.startsWith("Bearer ")){
             token = header.substring(7);
+        } else if(request.getRequestURI().equals(request.getContextPath() + EVENTS_PATH)){
+            // only for the SSE stream, EventSource cannot send an Authorization header
+            token = request.getParameter("access_token");
         }
         if(token!=null && SecurityContextHolder.getContext().getAuthentication() == null){
-            username = jWTUtil.extractUsername(token);
+            // one signature check at most, none while the token is in the verified cache
+            VerifiedToken verifiedToken = tokenVerifier.verify(token);
             UsernamePasswordAuthenticationToken auth;
-            if(!jWTUtil.isExpired(token,username)){
-                if(username.equals("admin")) {
-                    UserDetails userDetails = userRepo.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User Not Found!!"));
-                    auth = new UsernamePasswordAuthenticationToken(userDetails
-                            ,null,userDetails.getAuthorities());
-                }
-                else{
-                    UserDetails userDetails = managerRepo.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User Not Found!!"));
-                    auth = new UsernamePasswordAuthenticationToken(userDetails
-                            ,null,userDetails.getAuthorities());
-                }
+            if(verifiedToken != null){
+                username = verifiedToken.getUsername();
+                UserDetails userDetails = principalCache.find(username).orElseThrow(() -> new UsernameNotFoundException("User Not Found!!"));
+                auth = new UsernamePasswordAuthenticationToken(userDetails
+                        ,null,userDetails.getAuthorities());
 
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
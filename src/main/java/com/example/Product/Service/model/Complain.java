@@ -4,6 +4,8 @@ import com.example.Product.Service.enums.ComplainStatus;
 import jakarta.persistence.*;
 import jdk.jshell.JShell;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.time.LocalDate;
 
@@ -11,9 +13,13 @@ import java.time.LocalDate;
 @Data
 public class Complain {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "complain_id")
+    @TableGenerator(name = "complain_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "complain", allocationSize = 50)
     private Long id;
     private String complainNumber;
+    // complainNumber back to front, lets suffix search use the (status, reversed) index
+    private String reversedComplainNumber;
     private String username;
     private Long mobile;
     private String email;
@@ -23,7 +29,19 @@ public class Complain {
     @Enumerated(EnumType.STRING)
     private ComplainStatus status;
     private String complainResponse;
-    @ManyToOne
+    // bumped on every update, feeds the tracking and listing ETags
+    @Version
+    private Long version;
+    // lazy: every query that needs the manager says so with an entity graph or a join
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Manager manager;
+
+    @PrePersist
+    @PreUpdate
+    private void reverseComplainNumber(){
+        reversedComplainNumber = complainNumber == null ? null : new StringBuilder(complainNumber).reverse().toString();
+    }
 }
@@ -0,0 +1,19 @@
+package com.example.Product.Service.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * One row per complain day holding the next unreserved sequence value.
+ * Instances reserve whole blocks from this row and hand numbers out from memory.
+ */
+@Entity
+@Data
+public class ComplainSequence {
+    @Id
+    private LocalDate sequenceDate;
+    private Long nextValue;
+}
@@ -2,6 +2,8 @@ package com.example.Product.Service.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -20,8 +22,12 @@ public class Manager implements UserDetails {
     private String email;
     private String password;
     private Long mobile;
+    @Version
+    private Long version;
 
     @OneToMany(mappedBy = "manager")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Complain> complainList;
 
     @Override
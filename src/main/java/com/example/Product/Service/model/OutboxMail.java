@@ -0,0 +1,33 @@
+package com.example.Product.Service.model;
+
+import com.example.Product.Service.enums.MailStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A mail waiting in the outbox. PENDING rows are retried with backoff until they are SENT,
+ * or become DEAD after mail.outbox.max-attempts failures.
+ */
+@Entity
+@Data
+public class OutboxMail {
+    @Id
+    // pooled like Complain's, IDENTITY would insert every mail of a bulk close on its own
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "outbox_mail_id")
+    @TableGenerator(name = "outbox_mail_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "outbox_mail", allocationSize = 50)
+    private Long id;
+    private String recipient;
+    private String subject;
+    @Column(length = 4000)
+    private String body;
+    @Enumerated(EnumType.STRING)
+    private MailStatus status;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    @Column(length = 1000)
+    private String lastError;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,24 @@
+package com.example.Product.Service.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token as stored server side: only its hash, never the token itself.
+ * All tokens rotated from the same login share a family.
+ */
+@Entity
+@Data
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(unique = true)
+    private String tokenHash;
+    private String username;
+    private String family;
+    private LocalDateTime expiresAt;
+    private boolean revoked;
+}
@@ -0,0 +1,19 @@
+package com.example.Product.Service.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A job lease shared by all instances: whoever holds an unexpired row runs the job.
+ */
+@Entity
+@Data
+public class SchedulerLease {
+    @Id
+    private String name;
+    private String owner;
+    private LocalDateTime expiresAt;
+}
@@ -1,21 +1,178 @@
 package com.example.Product.Service.repository;
 
+import com.example.Product.Service.dto.ComplainCountView;
+import com.example.Product.Service.dto.ComplainListView;
+import com.example.Product.Service.dto.ComplainNumberView;
+import com.example.Product.Service.dto.ComplainOutputDto;
+import com.example.Product.Service.dto.ComplainSearchView;
+import com.example.Product.Service.dto.ComplainVersionView;
+import com.example.Product.Service.dto.ManagerLoadView;
 import com.example.Product.Service.enums.ComplainStatus;
 import com.example.Product.Service.model.Complain;
 import com.example.Product.Service.model.Manager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ComplainRepo extends JpaRepository<Complain,Long> {
+    String NUMBER_VIEW = "select new com.example.Product.Service.dto.ComplainNumberView(c.id, c.complainDate, c.complainNumber)"
+            + " from Complain c ";
+    String LIST_VIEW = "select new com.example.Product.Service.dto.ComplainListView(c.id, c.complainDate, c.complainNumber,"
+            + " c.username, c.mobile, c.email, c.address, c.complain, c.status, c.complainResponse,"
+            + " m.fullName, m.email, m.mobile, c.version, m.version) from Complain c ";
+    String VERSION_VIEW = "select new com.example.Product.Service.dto.ComplainVersionView(c.id, c.complainDate, c.version, m.version)"
+            + " from Complain c ";
+    // keyset predicate for the (complainDate, id) order; the leading >= gives the optimizer a range
+    String AFTER_CURSOR = " and c.complainDate >= :date and (c.complainDate > :date or c.id > :id)";
+    String KEYSET_ORDER = " order by c.complainDate, c.id";
+    String OUTPUT_DTO = "select new com.example.Product.Service.dto.ComplainOutputDto(c.complainNumber, c.username, c.mobile,"
+            + " c.email, c.address, c.complain, c.complainDate, c.status, c.complainResponse,"
+            + " m.fullName, m.email, m.mobile, c.version, m.version) from Complain c left join c.manager m ";
+
     Long countByComplainDate(LocalDate date);
+    // forward-only read of the whole table for the search index (useCursorFetch on MySQL); rows are not kept in the persistence context
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "1000"), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("select new com.example.Product.Service.dto.ComplainSearchView(c.complainNumber, c.username, c.email, c.address,"
+            + " c.complain, c.complainResponse, c.status) from Complain c order by c.id")
+    Stream<ComplainSearchView> streamSearchViews();
+    @Query("select new com.example.Product.Service.dto.ComplainSearchView(c.complainNumber, c.username, c.email, c.address,"
+            + " c.complain, c.complainResponse, c.status) from Complain c where c.complainNumber in :numbers")
+    List<ComplainSearchView> findSearchViews(@Param("numbers") Collection<String> complainNumbers);
+    // export: forward-only, fetch-size rows at a time (MySQL needs useCursorFetch, set in application.properties), nothing kept in the persistence context
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "500"), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(LIST_VIEW + "left join c.manager m where (:from is null or c.complainDate >= :from) and (:to is null or c.complainDate <= :to)"
+            + " and (:status is null or c.status = :status) and (:manager is null or m.username = :manager) order by c.id")
+    Stream<ComplainListView> streamListViews(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                             @Param("status") ComplainStatus status, @Param("manager") String managerUsername);
+    // rebuild and reconciliation of the /stats aggregate
+    @Query("select new com.example.Product.Service.dto.ComplainCountView(m.username, c.status, count(c))"
+            + " from Complain c left join c.manager m group by m.username, c.status")
+    List<ComplainCountView> countByManagerAndStatus();
+    @Query("select new com.example.Product.Service.dto.ComplainCountView(c.complainDate, count(c))"
+            + " from Complain c where c.complainDate >= :since group by c.complainDate")
+    List<ComplainCountView> countByDaySince(@Param("since") LocalDate since);
+    @Query("select new com.example.Product.Service.dto.ComplainCountView(m.username, c.status, count(c))"
+            + " from Complain c left join c.manager m where c.id in :ids group by m.username, c.status")
+    List<ComplainCountView> countByManagerAndStatus(@Param("ids") List<Long> ids);
+
+    // auto-assignment: every manager with their open load, then the oldest pending complains, locked
+    @Query("select new com.example.Product.Service.dto.ManagerLoadView(m.id, m.username, count(c)) from Manager m"
+            + " left join Complain c on c.manager = m and c.status = :status group by m.id, m.username")
+    List<ManagerLoadView> findManagerLoads(@Param("status") ComplainStatus status);
+    // lock timeout -2 is SKIP LOCKED: rows being assigned elsewhere are left to that transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select c from Complain c where c.status = :status" + KEYSET_ORDER)
+    List<Complain> findByStatusForUpdate(@Param("status") ComplainStatus status, Limit limit);
+    // guarded: only rows still in the expected status move, the count tells how many did
+    @Modifying
+    @Query("update Complain c set c.manager = :manager, c.status = :to, c.version = c.version + 1"
+            + " where c.id in :ids and c.status = :from")
+    int assignAll(@Param("manager") Manager manager, @Param("ids") List<Long> ids,
+                  @Param("from") ComplainStatus from, @Param("to") ComplainStatus to);
+
+    // single transitions (ComplainTransitions): one guarded statement, 0 rows means not found or not in the expected state
+    @Modifying
+    @Query("update Complain c set c.manager = :manager, c.status = :to, c.version = c.version + 1"
+            + " where c.complainNumber = :number and c.status = :from")
+    int assign(@Param("number") String complainNumber, @Param("manager") Manager manager,
+               @Param("from") ComplainStatus from, @Param("to") ComplainStatus to);
+    @Modifying
+    @Query("update Complain c set c.manager = :manager, c.version = c.version + 1"
+            + " where c.complainNumber = :number and c.status = :status and c.version = :version")
+    int reassign(@Param("number") String complainNumber, @Param("manager") Manager manager,
+                 @Param("status") ComplainStatus status, @Param("version") Long version);
+    @Modifying
+    @Query("update Complain c set c.complainResponse = :response, c.version = c.version + 1"
+            + " where c.complainNumber = :number and c.status = :status"
+            + " and c.manager.id in (select m.id from Manager m where m.username = :manager)")
+    int respond(@Param("number") String complainNumber, @Param("response") String response, @Param("status") ComplainStatus status,
+                @Param("manager") String managerUsername);
+    @Modifying
+    @Query("update Complain c set c.status = :to, c.version = c.version + 1 where c.complainNumber = :number and c.status = :from")
+    int transition(@Param("number") String complainNumber, @Param("from") ComplainStatus from, @Param("to") ComplainStatus to);
+
+    // bulk operations lock the requested rows, classify them, then update the applicable ones by id
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Complain c where c.complainNumber in :numbers")
+    List<Complain> findAllByComplainNumberInForUpdate(@Param("numbers") Collection<String> numbers);
+    @Modifying
+    @Query("update Complain c set c.complainResponse = :response, c.version = c.version + 1"
+            + " where c.id in :ids and c.status = :status")
+    int respondAll(@Param("response") String response, @Param("ids") List<Long> ids, @Param("status") ComplainStatus status);
+    @Modifying
+    @Query("update Complain c set c.status = :to, c.version = c.version + 1 where c.id in :ids and c.status = :from")
+    int transitionAll(@Param("ids") List<Long> ids, @Param("from") ComplainStatus from, @Param("to") ComplainStatus to);
+    // archival: closed complains older than a date, oldest first, and their removal once archived
+    @Query(LIST_VIEW + "left join c.manager m where c.status = :status and c.complainDate < :before order by c.id")
+    List<ComplainListView> findListViewsBefore(@Param("status") ComplainStatus status, @Param("before") LocalDate before, Limit limit);
+    @Modifying
+    @Query("delete from Complain c where c.id in :ids and c.status = :status")
+    int deleteAllByIdInAndStatus(@Param("ids") List<Long> ids, @Param("status") ComplainStatus status);
+    @EntityGraph(attributePaths = "manager")
     Optional<Complain> findByComplainNumber(String complainNumber);
+    @EntityGraph(attributePaths = "manager")
     List<Complain> findAllByStatus(ComplainStatus status);
+    @EntityGraph(attributePaths = "manager")
     List<Complain> findByManagerAndStatus(Manager manager, ComplainStatus status);
+    @EntityGraph(attributePaths = "manager")
     List<Complain> findByManagerOrStatus(Manager manager, ComplainStatus status);
-    List<Complain> findByStatusAndComplainNumberEndsWith(ComplainStatus status, String complainNumber);
+
+    // DTO paths: the response is built by the select itself, no entities and no extra manager loads
+    @Query(OUTPUT_DTO + "where c.complainNumber = :complainNumber")
+    Optional<ComplainOutputDto> findOutputByComplainNumber(@Param("complainNumber") String complainNumber);
+    @Query(OUTPUT_DTO + "where c.complainNumber in :numbers")
+    List<ComplainOutputDto> findOutputsByComplainNumberIn(@Param("numbers") Collection<String> complainNumbers);
+    // reversedSuffix has % _ and ! escaped with ! (a backslash is itself an escape in MySQL literals)
+    @Query(OUTPUT_DTO + "where c.status = :status and c.reversedComplainNumber like :reversedSuffix% escape '!'")
+    List<ComplainOutputDto> findOutputsByStatusAndReversedPrefix(@Param("status") ComplainStatus status,
+                                                                 @Param("reversedSuffix") String reversedSuffix, Pageable pageable);
+
+    // every complain showing this manager's details, to drop their tracking entries after a profile edit
+    @Query("select c.complainNumber from Complain c join c.manager m where m.username = :username")
+    List<String> findComplainNumbersByManager(@Param("username") String username);
+
+    @Query(NUMBER_VIEW + "where c.status = :status" + KEYSET_ORDER)
+    List<ComplainNumberView> findNumberViews(@Param("status") ComplainStatus status, Limit limit);
+    @Query(NUMBER_VIEW + "where c.status = :status" + AFTER_CURSOR + KEYSET_ORDER)
+    List<ComplainNumberView> findNumberViewsAfter(@Param("status") ComplainStatus status, @Param("date") LocalDate date,
+                                                  @Param("id") Long id, Limit limit);
+
+    @Query(LIST_VIEW + "join c.manager m where m.username = :username and c.status = :status" + KEYSET_ORDER)
+    List<ComplainListView> findListViewsByManager(@Param("username") String username, @Param("status") ComplainStatus status,
+                                                  Limit limit);
+    @Query(LIST_VIEW + "join c.manager m where m.username = :username and c.status = :status" + AFTER_CURSOR + KEYSET_ORDER)
+    List<ComplainListView> findListViewsByManagerAfter(@Param("username") String username, @Param("status") ComplainStatus status,
+                                                       @Param("date") LocalDate date, @Param("id") Long id, Limit limit);
+
+    // same rows as findListViewsByManager(After), only keys and versions: answers If-None-Match without loading the page
+    @Query(VERSION_VIEW + "join c.manager m where m.username = :username and c.status = :status" + KEYSET_ORDER)
+    List<ComplainVersionView> findVersionViewsByManager(@Param("username") String username, @Param("status") ComplainStatus status,
+                                                        Limit limit);
+    @Query(VERSION_VIEW + "join c.manager m where m.username = :username and c.status = :status" + AFTER_CURSOR + KEYSET_ORDER)
+    List<ComplainVersionView> findVersionViewsByManagerAfter(@Param("username") String username, @Param("status") ComplainStatus status,
+                                                             @Param("date") LocalDate date, @Param("id") Long id, Limit limit);
+
+    @Query(LIST_VIEW + "left join c.manager m where (c.manager = :manager or c.status = :status)" + KEYSET_ORDER)
+    List<ComplainListView> findListViewsByManagerOrStatus(@Param("manager") Manager manager, @Param("status") ComplainStatus status,
+                                                          Limit limit);
+    @Query(LIST_VIEW + "left join c.manager m where (c.manager = :manager or c.status = :status)" + AFTER_CURSOR + KEYSET_ORDER)
+    List<ComplainListView> findListViewsByManagerOrStatusAfter(@Param("manager") Manager manager, @Param("status") ComplainStatus status,
+                                                               @Param("date") LocalDate date, @Param("id") Long id, Limit limit);
 }
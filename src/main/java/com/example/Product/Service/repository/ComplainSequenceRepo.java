@@ -0,0 +1,25 @@
+package com.example.Product.Service.repository;
+
+import com.example.Product.Service.model.ComplainSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface ComplainSequenceRepo extends JpaRepository<ComplainSequence, LocalDate> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ComplainSequence s where s.sequenceDate = :date")
+    Optional<ComplainSequence> findForUpdate(@Param("date") LocalDate date);
+
+    // a plain INSERT, unlike save() it fails on an existing row instead of merging over it
+    @Modifying
+    @Query(value = "insert into complain_sequence (sequence_date, next_value) values (:date, :nextValue)", nativeQuery = true)
+    void insert(@Param("date") LocalDate date, @Param("nextValue") long nextValue);
+}
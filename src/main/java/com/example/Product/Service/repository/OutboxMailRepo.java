@@ -0,0 +1,42 @@
+package com.example.Product.Service.repository;
+
+import com.example.Product.Service.enums.MailStatus;
+import com.example.Product.Service.model.OutboxMail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxMailRepo extends JpaRepository<OutboxMail, Long> {
+    // lock timeout -2 is SKIP LOCKED: instances draining at the same time take different rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from OutboxMail m where m.status = :status and m.nextAttemptAt <= :now order by m.id")
+    List<OutboxMail> findDueForUpdate(@Param("status") MailStatus status, @Param("now") LocalDateTime now, Limit limit);
+
+    // recording the outcome of a claimed batch
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from OutboxMail m where m.id in :ids")
+    List<OutboxMail> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    // retention purge, a bounded batch at a time
+    @Query("select m.id from OutboxMail m where m.status = :status and m.createdAt < :before order by m.id")
+    List<Long> findIdsByStatusCreatedBefore(@Param("status") MailStatus status, @Param("before") LocalDateTime before, Limit limit);
+
+    @Modifying
+    @Query("delete from OutboxMail m where m.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    long countByStatus(MailStatus status);
+}
@@ -0,0 +1,33 @@
+package com.example.Product.Service.repository;
+
+import com.example.Product.Service.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepo extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // only one of two concurrent refreshes with the same token gets 1 back
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.id = :id and r.revoked = false")
+    int revoke(@Param("id") Long id);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.family = :family and r.revoked = false")
+    int revokeFamily(@Param("family") String family);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.username = :username and r.revoked = false")
+    int revokeAllByUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.username = :username and r.expiresAt < :now")
+    int deleteExpired(@Param("username") String username, @Param("now") LocalDateTime now);
+}
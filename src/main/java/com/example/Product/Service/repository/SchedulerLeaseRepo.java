@@ -0,0 +1,24 @@
+package com.example.Product.Service.repository;
+
+import com.example.Product.Service.model.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLeaseRepo extends JpaRepository<SchedulerLease, String> {
+    // takes an expired lease or extends our own; 1 when we hold it afterwards
+    @Modifying
+    @Query("update SchedulerLease l set l.owner = :owner, l.expiresAt = :until"
+            + " where l.name = :name and (l.expiresAt < :now or l.owner = :owner)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("update SchedulerLease l set l.owner = null, l.expiresAt = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,347 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.dto.ComplainListView;
+import com.example.Product.Service.dto.ComplainOutputDto;
+import com.example.Product.Service.enums.ComplainStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Append-only store of archived (CLOSED) complains under complain.archive.dir, one segment file per
+ * complain month ({@code complains-yyyyMM.seg}, the month is the number's prefix).
+ * <p>
+ * A segment is a run of blocks of up to complain.archive.block-size complains sorted by number:
+ * a header (magic, count, first and last number, length and CRC32 of the payload) followed by the
+ * deflated records. The headers are the sparse index, kept in memory per segment; a lookup inflates
+ * only the blocks whose number range covers the number. Segments are read through a read-only
+ * memory mapping, re-read whenever the file's length differs from what was mapped, so appends by
+ * another instance on shared storage are seen by the next lookup.
+ * <p>
+ * Readers never change a file: an incomplete or corrupt block at the end (a crash while appending,
+ * or an append in progress elsewhere) is skipped. Only {@link #append}, called under the
+ * complain-archive lease, cuts such a tail off before writing behind it.
+ * <p>
+ * With several instances the directory has to be shared storage.
+ */
+@Slf4j
+@Component
+public class ComplainArchive {
+    private static final int MAGIC = 0x43415231;
+    private static final String SUFFIX = ".seg";
+    // numbers are yyyyMMdd + sequence, a longer one is a larger sequence
+    private static final Comparator<String> NUMBER_ORDER = Comparator.comparingInt(String::length)
+            .thenComparing(Comparator.naturalOrder());
+
+    private final Path directory;
+    private final int blockSize;
+    private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+
+    public ComplainArchive(@Value("${complain.archive.dir:archive}") Path directory,
+                           @Value("${complain.archive.block-size:64}") int blockSize) throws IOException {
+        this.directory = directory;
+        this.blockSize = blockSize;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Appends the complains to their month's segments and forces them to disk before returning.
+     * The caller holds the complain-archive lease, so nobody else is appending.
+     */
+    public synchronized void append(List<ComplainListView> complains) {
+        Map<String, List<ComplainListView>> byMonth = new TreeMap<>();
+        for (ComplainListView complain : complains) {
+            byMonth.computeIfAbsent(month(complain.getComplainNumber()), month -> new ArrayList<>()).add(complain);
+        }
+        try {
+            for (Map.Entry<String, List<ComplainListView>> entry : byMonth.entrySet()) {
+                List<ComplainListView> sorted = new ArrayList<>(entry.getValue());
+                sorted.sort(Comparator.comparing(ComplainListView::getComplainNumber, NUMBER_ORDER));
+                Path file = file(entry.getKey());
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)) {
+                    Segment current = read(channel, file);
+                    if (current.valid < current.size) {
+                        log.warn("complain archive {}: cutting off {} bytes of a torn block", file, current.size - current.valid);
+                        channel.truncate(current.valid);
+                    }
+                    channel.position(current.valid);
+                    for (int from = 0; from < sorted.size(); from += blockSize) {
+                        channel.write(ByteBuffer.wrap(block(sorted.subList(from, Math.min(from + blockSize, sorted.size())))));
+                    }
+                    channel.force(true);
+                }
+                segments.put(entry.getKey(), open(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Optional<ComplainOutputDto> find(String complainNumber) {
+        if (complainNumber == null || complainNumber.length() < 6) {
+            return Optional.empty();
+        }
+        try {
+            Segment segment = segment(month(complainNumber));
+            if (segment == null) {
+                return Optional.empty();
+            }
+            for (Block block : segment.blocks) {
+                if (NUMBER_ORDER.compare(complainNumber, block.first) >= 0 && NUMBER_ORDER.compare(complainNumber, block.last) <= 0) {
+                    Optional<ComplainOutputDto> found = search(segment.buffer, block, complainNumber);
+                    if (found.isPresent()) {
+                        return found;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Optional.empty();
+    }
+
+    private static String month(String complainNumber) {
+        return complainNumber.substring(0, 6);
+    }
+
+    private Path file(String month) {
+        return directory.resolve("complains-" + month + SUFFIX);
+    }
+
+    // the mapped segment, re-read when the file grew (or first appeared) since it was mapped
+    private Segment segment(String month) throws IOException {
+        Path file = file(month);
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        Segment segment = segments.get(month);
+        if (segment == null || segment.size != size) {
+            segment = open(file);
+            segments.put(month, segment);
+        }
+        return segment;
+    }
+
+    private byte[] block(List<ComplainListView> complains) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(payload, deflater))) {
+            for (ComplainListView complain : complains) {
+                writeString(out, complain.getComplainNumber());
+                out.writeLong(complain.getComplainDate().toEpochDay());
+                writeString(out, complain.getUsername());
+                writeLong(out, complain.getMobile());
+                writeString(out, complain.getEmail());
+                writeString(out, complain.getAddress());
+                writeString(out, complain.getComplain());
+                writeString(out, complain.getStatus().name());
+                writeString(out, complain.getComplainResponse());
+                writeString(out, complain.getManagerName());
+                writeString(out, complain.getManagerEmail());
+                writeLong(out, complain.getManagerMobile());
+                writeLong(out, complain.getVersion());
+                writeLong(out, complain.getManagerVersion());
+            }
+        } finally {
+            deflater.end();
+        }
+        byte[] compressed = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+        ByteArrayOutputStream block = new ByteArrayOutputStream(compressed.length + 64);
+        DataOutputStream out = new DataOutputStream(block);
+        out.writeInt(MAGIC);
+        out.writeInt(complains.size());
+        out.writeUTF(complains.get(0).getComplainNumber());
+        out.writeUTF(complains.get(complains.size() - 1).getComplainNumber());
+        out.writeInt(compressed.length);
+        out.writeInt((int) crc.getValue());
+        out.write(compressed);
+        return block.toByteArray();
+    }
+
+    private static Segment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel, file);
+        }
+    }
+
+    // maps the segment and reads its block headers up to the first incomplete or corrupt block
+    private static Segment read(FileChannel channel, Path file) throws IOException {
+        long size = channel.size();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        List<Block> blocks = new ArrayList<>();
+        int position = 0;
+        while (position < buffer.limit()) {
+            Block block = header(buffer, position);
+            if (block == null) {
+                log.debug("complain archive {}: skipping {} bytes after the last complete block", file, size - position);
+                break;
+            }
+            blocks.add(block);
+            position = block.offset + block.length;
+        }
+        return new Segment(buffer, blocks, size, position);
+    }
+
+    // null when the block is incomplete or its payload does not match the checksum
+    private static Block header(ByteBuffer buffer, int position) {
+        try {
+            ByteBuffer view = buffer.duplicate().position(position);
+            if (view.getInt() != MAGIC) {
+                return null;
+            }
+            int count = view.getInt();
+            String first = readUtf(view);
+            String last = readUtf(view);
+            int length = view.getInt();
+            int crc = view.getInt();
+            if (length < 0 || view.remaining() < length) {
+                return null;
+            }
+            CRC32 check = new CRC32();
+            check.update(view.slice(view.position(), length));
+            if ((int) check.getValue() != crc) {
+                return null;
+            }
+            return new Block(first, last, count, view.position(), length);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Optional<ComplainOutputDto> search(ByteBuffer buffer, Block block, String complainNumber) throws IOException {
+        Inflater inflater = new Inflater();
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+                new ByteBufferInputStream(buffer.slice(block.offset, block.length)), inflater))) {
+            for (int i = 0; i < block.count; i++) {
+                String number = readString(in);
+                int order = NUMBER_ORDER.compare(number, complainNumber);
+                if (order > 0) {
+                    break;
+                }
+                ComplainOutputDto complain = new ComplainOutputDto();
+                complain.setComplainNumber(number);
+                complain.setComplainDate(LocalDate.ofEpochDay(in.readLong()));
+                complain.setUsername(readString(in));
+                complain.setMobile(readLong(in));
+                complain.setEmail(readString(in));
+                complain.setAddress(readString(in));
+                complain.setComplain(readString(in));
+                complain.setStatus(ComplainStatus.valueOf(readString(in)));
+                complain.setComplainResponse(readString(in));
+                complain.setManagerName(readString(in));
+                complain.setManagerEmail(readString(in));
+                complain.setManagerMobile(readLong(in));
+                complain.setVersion(readLong(in));
+                complain.setManagerVersion(readLong(in));
+                if (order == 0) {
+                    return Optional.of(complain);
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        return Optional.empty();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static String readUtf(ByteBuffer view) {
+        byte[] bytes = new byte[Short.toUnsignedInt(view.getShort())];
+        view.get(bytes);
+        // numbers are ASCII, modified UTF-8 and UTF-8 agree
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A mapped segment: its file length when mapped and how much of it is complete blocks.
+     */
+    private record Segment(ByteBuffer buffer, List<Block> blocks, long size, long valid) {
+    }
+
+    /**
+     * One block: its number range, record count and where its deflated payload lies in the segment.
+     */
+    private record Block(String first, String last, int count, int offset, int length) {
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, n);
+            return n;
+        }
+    }
+}
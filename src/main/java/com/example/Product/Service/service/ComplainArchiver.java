@@ -0,0 +1,108 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.dto.ComplainListView;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.repository.ComplainRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Moves CLOSED complains older than complain.archive.min-age (by complain date) out of the complain
+ * table into the {@link ComplainArchive}.
+ * <p>
+ * A run holds the complain-archive lease through {@link SchedulerLeases}, like the auto-assigner,
+ * and archives at most complain.archive.max-per-run so the other scheduled jobs are
+ * not held up behind a large backlog. Each batch of complain.archive.batch-size is appended to the
+ * archive and forced to disk before its rows are deleted in the same transaction, so a complain is
+ * always in the table, the archive or both. A
+ * batch whose delete does not commit is archived again by the next run; the archive then holds the
+ * same complain twice, which a lookup does not notice.
+ */
+@Slf4j
+@Service
+public class ComplainArchiver {
+    static final String LEASE = "complain-archive";
+
+    private final ComplainRepo complainRepo;
+    private final SchedulerLeases schedulerLeases;
+    private final ComplainArchive complainArchive;
+    private final ComplainStats complainStats;
+    private final ComplainSearchIndex complainSearchIndex;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxPerRun;
+    private final Duration leaseTtl;
+    private final Counter archived;
+
+    public ComplainArchiver(ComplainRepo complainRepo, SchedulerLeases schedulerLeases, ComplainArchive complainArchive,
+                            ComplainStats complainStats, ComplainSearchIndex complainSearchIndex,
+                            MeterRegistry meterRegistry,
+                            @Value("${complain.archive.enabled:false}") boolean enabled,
+                            @Value("${complain.archive.min-age:180d}") Duration minAge,
+                            @Value("${complain.archive.batch-size:500}") int batchSize,
+                            @Value("${complain.archive.max-per-run:20000}") int maxPerRun,
+                            @Value("${complain.archive.lease-ttl:5m}") Duration leaseTtl) {
+        this.complainRepo = complainRepo;
+        this.schedulerLeases = schedulerLeases;
+        this.complainArchive = complainArchive;
+        this.complainStats = complainStats;
+        this.complainSearchIndex = complainSearchIndex;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxPerRun = maxPerRun;
+        this.leaseTtl = leaseTtl;
+        this.archived = meterRegistry.counter("complain.archive.archived");
+    }
+
+    @Scheduled(initialDelayString = "${complain.archive.interval:1h}", fixedDelayString = "${complain.archive.interval:1h}")
+    public void scheduled() {
+        if (enabled) {
+            archive(LocalDate.now().minusDays(minAge.toDays()));
+        }
+    }
+
+    /**
+     * Archives CLOSED complains dated before {@code before}, at most complain.archive.max-per-run;
+     * the rest is left for the next run.
+     *
+     * @return how many complains this call archived, 0 when another instance holds the lease
+     */
+    public int archive(LocalDate before) {
+        int total = schedulerLeases.run(LEASE, leaseTtl, maxPerRun,
+                remaining -> archiveBatch(before, Math.min(batchSize, remaining)));
+        if (total > 0) {
+            log.info("archived {} closed complains dated before {}", total, before);
+        }
+        return total;
+    }
+
+    // 0 ends the run: nothing left to archive
+    private int archiveBatch(LocalDate before, int limit) {
+        List<ComplainListView> closed = complainRepo.findListViewsBefore(ComplainStatus.CLOSED, before, Limit.of(limit));
+        if (closed.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = closed.stream().map(ComplainListView::getId).toList();
+        complainStats.archived(complainRepo.countByManagerAndStatus(ids));
+        complainArchive.append(closed);
+        int deleted = complainRepo.deleteAllByIdInAndStatus(ids, ComplainStatus.CLOSED);
+        if (deleted != closed.size()) {
+            // closed complains never change, anything else means they were not what was archived
+            throw new IllegalStateException("Expected " + closed.size() + " closed complains, deleted " + deleted);
+        }
+        complainSearchIndex.archived(closed.stream().map(ComplainListView::getComplainNumber).toList());
+        archived.increment(deleted);
+        return deleted;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.dto.ManagerLoadView;
+import com.example.Product.Service.enums.ComplainEventType;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.model.Complain;
+import com.example.Product.Service.model.Manager;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.repository.ManagerRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Assigns PENDING complains, oldest first, to the manager with the fewest IN_PROCESS ones.
+ * <p>
+ * A run holds the complain-auto-assign lease through {@link SchedulerLeases}, so one run works at a
+ * time, also between the schedule and POST /autoassign on one instance; a second caller gets 0
+ * back. The loads are counted once per run, in its first batch, into a priority queue that follows
+ * every assignment. Each batch of complain.auto-assign.batch-size is locked with
+ * SKIP LOCKED and moved with one guarded UPDATE per manager, in one transaction that also renews
+ * the lease. Managers at complain.auto-assign.max-open (0: no limit) get nothing more.
+ */
+@Slf4j
+@Service
+public class ComplainAutoAssigner {
+    static final String LEASE = "complain-auto-assign";
+
+    private final ComplainRepo complainRepo;
+    private final ManagerRepo managerRepo;
+    private final SchedulerLeases schedulerLeases;
+    private final ComplainTrackingCache complainTrackingCache;
+    private final ComplainEventHub complainEventHub;
+    private final ComplainStats complainStats;
+    private final ComplainSearchIndex complainSearchIndex;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxPerRun;
+    private final long maxOpen;
+    private final Duration leaseTtl;
+    private final Counter assigned;
+
+    public ComplainAutoAssigner(ComplainRepo complainRepo, ManagerRepo managerRepo, SchedulerLeases schedulerLeases,
+                                ComplainTrackingCache complainTrackingCache, ComplainEventHub complainEventHub,
+                                ComplainStats complainStats, ComplainSearchIndex complainSearchIndex,
+                                MeterRegistry meterRegistry,
+                                @Value("${complain.auto-assign.enabled:false}") boolean enabled,
+                                @Value("${complain.auto-assign.batch-size:200}") int batchSize,
+                                @Value("${complain.auto-assign.max-per-run:10000}") int maxPerRun,
+                                @Value("${complain.auto-assign.max-open:0}") long maxOpen,
+                                @Value("${complain.auto-assign.lease-ttl:2m}") Duration leaseTtl) {
+        this.complainRepo = complainRepo;
+        this.managerRepo = managerRepo;
+        this.schedulerLeases = schedulerLeases;
+        this.complainTrackingCache = complainTrackingCache;
+        this.complainEventHub = complainEventHub;
+        this.complainStats = complainStats;
+        this.complainSearchIndex = complainSearchIndex;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxPerRun = maxPerRun;
+        this.maxOpen = maxOpen;
+        this.leaseTtl = leaseTtl;
+        this.assigned = meterRegistry.counter("complain.auto-assign.assigned");
+    }
+
+    @Scheduled(initialDelayString = "${complain.auto-assign.interval:1m}", fixedDelayString = "${complain.auto-assign.interval:1m}")
+    public void scheduled() {
+        if (enabled) {
+            assignPending();
+        }
+    }
+
+    /**
+     * @return how many complains this call assigned, 0 when another instance holds the lease
+     */
+    public int assignPending() {
+        PriorityQueue<ManagerLoad> loads = new PriorityQueue<>(
+                Comparator.comparingLong((ManagerLoad load) -> load.open).thenComparing(load -> load.username));
+        int total = schedulerLeases.run(LEASE, leaseTtl, maxPerRun, remaining -> {
+            if (loads.isEmpty()) {
+                for (ManagerLoadView view : complainRepo.findManagerLoads(ComplainStatus.IN_PROCESS)) {
+                    loads.add(new ManagerLoad(view.getManagerId(), view.getUsername(), view.getOpen()));
+                }
+            }
+            return assignBatch(loads, Math.min(batchSize, remaining));
+        });
+        if (total > 0) {
+            log.info("auto-assigned {} complains", total);
+        }
+        return total;
+    }
+
+    // 0 ends the run: nothing left to assign or no manager below max-open
+    private int assignBatch(PriorityQueue<ManagerLoad> loads, int limit) {
+        List<Complain> pending = complainRepo.findByStatusForUpdate(ComplainStatus.PENDING, Limit.of(limit));
+        Map<ManagerLoad, List<Complain>> plan = new LinkedHashMap<>();
+        for (Complain complain : pending) {
+            ManagerLoad least = loads.peek();
+            if (least == null || (maxOpen > 0 && least.open >= maxOpen)) {
+                break;
+            }
+            loads.poll();
+            least.open++;
+            loads.add(least);
+            plan.computeIfAbsent(least, load -> new ArrayList<>()).add(complain);
+        }
+        int count = 0;
+        for (Map.Entry<ManagerLoad, List<Complain>> entry : plan.entrySet()) {
+            ManagerLoad load = entry.getKey();
+            List<Complain> complains = entry.getValue();
+            Manager manager = managerRepo.getReferenceById(load.managerId);
+            int updated = complainRepo.assignAll(manager, complains.stream().map(Complain::getId).toList(),
+                    ComplainStatus.PENDING, ComplainStatus.IN_PROCESS);
+            if (updated != complains.size()) {
+                // the rows are locked by this transaction, anything else means the lock did not hold
+                throw new IllegalStateException("Expected " + complains.size() + " pending complains, updated " + updated);
+            }
+            Map<String, String> managerByNumber = new LinkedHashMap<>();
+            List<ComplainStats.Move> moves = new ArrayList<>(complains.size());
+            for (Complain complain : complains) {
+                managerByNumber.put(complain.getComplainNumber(), load.username);
+                moves.add(new ComplainStats.Move(ComplainStatus.PENDING, null, ComplainStatus.IN_PROCESS, load.username));
+            }
+            complainTrackingCache.invalidateAll(managerByNumber.keySet());
+            complainEventHub.publishAll(ComplainEventType.ASSIGNED, ComplainStatus.IN_PROCESS, managerByNumber);
+            complainStats.movedAll(moves);
+            complainSearchIndex.statusChanged(managerByNumber.keySet(), ComplainStatus.IN_PROCESS);
+            count += updated;
+        }
+        assigned.increment(count);
+        return count;
+    }
+
+    private static final class ManagerLoad {
+        private final Long managerId;
+        private final String username;
+        private long open;
+
+        private ManagerLoad(Long managerId, String username, long open) {
+            this.managerId = managerId;
+            this.username = username;
+            this.open = open;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.dto.BulkItemResult;
+import com.example.Product.Service.enums.BulkOutcome;
+import com.example.Product.Service.enums.ComplainEventType;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.model.Complain;
+import com.example.Product.Service.model.Manager;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.repository.ManagerRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Assign, respond and close for many complains at once.
+ * <p>
+ * Numbers are handled in chunks of complain.bulk.chunk-size, one transaction each: the chunk's rows
+ * are locked and classified (applied, wrong state, not found), then all applicable rows move with
+ * one guarded UPDATE by id. Cache invalidation, events, counters and close mails go out once per
+ * chunk. Results follow input order, duplicates reported once.
+ */
+@Service
+public class ComplainBulkService {
+    private final ComplainRepo complainRepo;
+    private final ManagerRepo managerRepo;
+    private final ComplainTrackingCache complainTrackingCache;
+    private final ComplainEventHub complainEventHub;
+    private final ComplainStats complainStats;
+    private final ComplainSearchIndex complainSearchIndex;
+    private final MailingService mailingService;
+    private final MailOutboxService mailOutboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxSize;
+
+    public ComplainBulkService(ComplainRepo complainRepo, ManagerRepo managerRepo, ComplainTrackingCache complainTrackingCache,
+                               ComplainEventHub complainEventHub, ComplainStats complainStats, ComplainSearchIndex complainSearchIndex,
+                               MailingService mailingService, MailOutboxService mailOutboxService, PlatformTransactionManager transactionManager,
+                               @Value("${complain.bulk.chunk-size:500}") int chunkSize,
+                               @Value("${complain.bulk.max-size:10000}") int maxSize) {
+        this.complainRepo = complainRepo;
+        this.managerRepo = managerRepo;
+        this.complainTrackingCache = complainTrackingCache;
+        this.complainEventHub = complainEventHub;
+        this.complainStats = complainStats;
+        this.complainSearchIndex = complainSearchIndex;
+        this.mailingService = mailingService;
+        this.mailOutboxService = mailOutboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxSize = maxSize;
+    }
+
+    public List<BulkItemResult> assign(List<String> complainNumbers, String managerUsername) {
+        Manager manager = managerRepo.findByUsername(managerUsername).orElseThrow(() -> new UsernameNotFoundException("Manager Not Found"));
+        return apply(complainNumbers, complain -> true, complain -> complain.getStatus() == ComplainStatus.PENDING,
+                ComplainStatus.IN_PROCESS, applicable -> {
+            int updated = complainRepo.assignAll(manager, ids(applicable), ComplainStatus.PENDING, ComplainStatus.IN_PROCESS);
+            List<ComplainStats.Move> moves = new ArrayList<>(applicable.size());
+            Map<String, String> managerByNumber = new LinkedHashMap<>();
+            for (Complain complain : applicable) {
+                moves.add(new ComplainStats.Move(ComplainStatus.PENDING, null, ComplainStatus.IN_PROCESS, managerUsername));
+                managerByNumber.put(complain.getComplainNumber(), managerUsername);
+            }
+            complainStats.movedAll(moves);
+            complainEventHub.publishAll(ComplainEventType.ASSIGNED, ComplainStatus.IN_PROCESS, managerByNumber);
+            complainSearchIndex.statusChanged(managerByNumber.keySet(), ComplainStatus.IN_PROCESS);
+            return updated;
+        });
+    }
+
+    /**
+     * Responds on the manager's own IN_PROCESS complains; complains of other managers are reported as not found.
+     */
+    public List<BulkItemResult> respond(List<String> complainNumbers, String response, String managerUsername) {
+        Manager manager = managerRepo.findByUsername(managerUsername).orElseThrow(() -> new UsernameNotFoundException("Manager Not Found"));
+        return apply(complainNumbers, complain -> ownedBy(complain, manager), complain -> complain.getStatus() == ComplainStatus.IN_PROCESS,
+                ComplainStatus.IN_PROCESS, applicable -> {
+            int updated = complainRepo.respondAll(response, ids(applicable), ComplainStatus.IN_PROCESS);
+            Map<String, String> managerByNumber = new LinkedHashMap<>();
+            for (Complain complain : applicable) {
+                managerByNumber.put(complain.getComplainNumber(), managerUsername);
+            }
+            complainEventHub.publishAll(ComplainEventType.RESPONDED, ComplainStatus.IN_PROCESS, managerByNumber);
+            complainSearchIndex.responded(managerByNumber.keySet(), response);
+            return updated;
+        });
+    }
+
+    public List<BulkItemResult> close(List<String> complainNumbers) {
+        return apply(complainNumbers, complain -> true, complain -> complain.getStatus() == ComplainStatus.IN_PROCESS,
+                ComplainStatus.CLOSED, applicable -> {
+            int updated = complainRepo.transitionAll(ids(applicable), ComplainStatus.IN_PROCESS, ComplainStatus.CLOSED);
+            // one query for the managers the close mails name, instead of one per lazy reference
+            managerRepo.findAllById(applicable.stream().map(complain -> complain.getManager().getId()).distinct().toList());
+            List<ComplainStats.Move> moves = new ArrayList<>(applicable.size());
+            Map<String, String> managerByNumber = new LinkedHashMap<>();
+            List<SimpleMailMessage> mails = new ArrayList<>();
+            for (Complain complain : applicable) {
+                String managerUsername = complain.getManager().getUsername();
+                moves.add(new ComplainStats.Move(ComplainStatus.IN_PROCESS, managerUsername, ComplainStatus.CLOSED, managerUsername));
+                managerByNumber.put(complain.getComplainNumber(), managerUsername);
+                if (complain.getEmail() != null) {
+                    mails.add(mailingService.closedMail(complain));
+                }
+            }
+            complainStats.movedAll(moves);
+            complainEventHub.publishAll(ComplainEventType.CLOSED, ComplainStatus.CLOSED, managerByNumber);
+            complainSearchIndex.statusChanged(managerByNumber.keySet(), ComplainStatus.CLOSED);
+            if (!mails.isEmpty()) {
+                mailOutboxService.enqueueAll(mails);
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * @param visible complains the caller may see, the others count as not found
+     * @param applies complains in the state the operation expects
+     * @param update  the guarded UPDATE plus follow-ups for the applicable complains, returns the updated row count
+     */
+    private List<BulkItemResult> apply(List<String> complainNumbers, Predicate<Complain> visible, Predicate<Complain> applies,
+                                       ComplainStatus appliedStatus, Function<List<Complain>, Integer> update) {
+        if (complainNumbers.size() > maxSize) {
+            throw new RuntimeException("At most " + maxSize + " complains per request!!");
+        }
+        List<String> unique = new ArrayList<>(new LinkedHashSet<>(complainNumbers));
+        List<BulkItemResult> results = new ArrayList<>(unique.size());
+        for (int from = 0; from < unique.size(); from += chunkSize) {
+            List<String> chunk = unique.subList(from, Math.min(from + chunkSize, unique.size()));
+            results.addAll(transactionTemplate.execute(status -> applyChunk(chunk, visible, applies, appliedStatus, update)));
+        }
+        return results;
+    }
+
+    private List<BulkItemResult> applyChunk(List<String> chunk, Predicate<Complain> visible, Predicate<Complain> applies,
+                                            ComplainStatus appliedStatus, Function<List<Complain>, Integer> update) {
+        Map<String, Complain> found = new HashMap<>();
+        for (Complain complain : complainRepo.findAllByComplainNumberInForUpdate(chunk)) {
+            if (visible.test(complain)) {
+                found.put(complain.getComplainNumber(), complain);
+            }
+        }
+        List<Complain> applicable = new ArrayList<>();
+        Set<String> applied = new LinkedHashSet<>();
+        for (String complainNumber : chunk) {
+            Complain complain = found.get(complainNumber);
+            if (complain != null && applies.test(complain)) {
+                applicable.add(complain);
+                applied.add(complainNumber);
+            }
+        }
+        if (!applicable.isEmpty()) {
+            int updated = update.apply(applicable);
+            if (updated != applicable.size()) {
+                // the rows are locked by this transaction, anything else means the lock did not hold
+                throw new IllegalStateException("Expected " + applicable.size() + " complains to change, updated " + updated);
+            }
+            complainTrackingCache.invalidateAll(applied);
+        }
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        for (String complainNumber : chunk) {
+            Complain complain = found.get(complainNumber);
+            if (complain == null) {
+                results.add(new BulkItemResult(complainNumber, BulkOutcome.NOT_FOUND, null));
+            } else if (applied.contains(complainNumber)) {
+                results.add(new BulkItemResult(complainNumber, BulkOutcome.APPLIED, appliedStatus));
+            } else {
+                results.add(new BulkItemResult(complainNumber, BulkOutcome.WRONG_STATE, complain.getStatus()));
+            }
+        }
+        return results;
+    }
+
+    private static boolean ownedBy(Complain complain, Manager manager) {
+        return complain.getManager() != null && manager.getId().equals(complain.getManager().getId());
+    }
+
+    private static List<Long> ids(List<Complain> complains) {
+        return complains.stream().map(Complain::getId).toList();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.Product.Service.service;
+
+/**
+ * The complain exists but is not in the state the change expects, someone else got there first.
+ * Controllers answer it with 409.
+ */
+public class ComplainConflictException extends RuntimeException {
+    public ComplainConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.dto.ComplainEvent;
+import com.example.Product.Service.enums.ComplainEventType;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Complain status changes pushed to the admin and manager panels over Server-Sent Events.
+ * <p>
+ * Subscribers are async requests, an idle one holds no thread. Events are published after the
+ * write commits, numbered, and kept in a ring of the last complain.events.buffer-size so a client
+ * reconnecting with Last-Event-ID gets what it missed; if that is already gone it gets a
+ * {@code resync} event and reloads its lists. Numbering starts at the start time in microseconds,
+ * so an id from before a restart is older than the ring and also gets {@code resync}. Each subscriber has its own small queue drained on a
+ * virtual thread, so a slow client delays only itself; one that falls complain.events.queue-size
+ * behind is closed and resumes from its last id. The admin sees every event, a manager only the
+ * complains assigned to them.
+ */
+@Component
+public class ComplainEventHub {
+    private final ComplainEvent[] recent;
+    // ids of this run are above firstId - 1
+    private final long firstId;
+    private long lastId;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final long timeoutMillis;
+    private final int queueSize;
+    private final Counter overflowed;
+
+    public ComplainEventHub(MeterRegistry meterRegistry,
+                            @Value("${complain.events.buffer-size:4096}") int bufferSize,
+                            @Value("${complain.events.queue-size:256}") int queueSize,
+                            @Value("${complain.events.timeout:30m}") Duration timeout) {
+        this.recent = new ComplainEvent[bufferSize];
+        this.lastId = Instant.now().toEpochMilli() * 1000;
+        this.firstId = lastId + 1;
+        this.queueSize = queueSize;
+        this.timeoutMillis = timeout.toMillis();
+        meterRegistry.gaugeCollectionSize("complain.events.subscribers", List.of(), subscribers);
+        this.overflowed = meterRegistry.counter("complain.events.overflowed");
+    }
+
+    /**
+     * Publishes once the current transaction commits (never, if it rolls back), right away outside one.
+     */
+    public void publish(ComplainEventType type, String complainNumber, ComplainStatus status, String managerUsername) {
+        AfterCommit.run(() -> dispatch(type, complainNumber, status, managerUsername));
+    }
+
+    /**
+     * One event per complain, same type and status, with one commit hook for the whole batch.
+     * @param managerByNumber complain number to its manager's username (null values allowed)
+     */
+    public void publishAll(ComplainEventType type, ComplainStatus status, Map<String, String> managerByNumber) {
+        AfterCommit.run(() -> managerByNumber.forEach((complainNumber, managerUsername) ->
+                dispatch(type, complainNumber, status, managerUsername)));
+    }
+
+    /**
+     * @param managerUsername null for the admin, who gets every event
+     * @param lastEventId     Last-Event-ID of a reconnecting client, null on the first connect
+     */
+    public SseEmitter subscribe(String managerUsername, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, managerUsername);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // registering and replaying under the publish lock: nothing is missed or sent twice
+        synchronized (recent) {
+            if (lastEventId != null) {
+                long oldest = Math.max(firstId, lastId - recent.length + 1);
+                // gone from the ring, from an earlier run, or never issued here
+                if (lastEventId + 1 < oldest || lastEventId > lastId) {
+                    subscriber.offer(SseEmitter.event().name("resync").data(lastId));
+                }
+                for (long id = Math.max(lastEventId + 1, oldest); id <= lastId; id++) {
+                    ComplainEvent event = recent[(int) (id % recent.length)];
+                    if (subscriber.accepts(event)) {
+                        subscriber.offer(toSse(event));
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    // keeps proxies from dropping idle streams and finds clients that went away without closing
+    @Scheduled(fixedDelayString = "${complain.events.heartbeat:20s}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().comment("ping"));
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdown();
+    }
+
+    private void dispatch(ComplainEventType type, String complainNumber, ComplainStatus status, String managerUsername) {
+        synchronized (recent) {
+            ComplainEvent event = new ComplainEvent(++lastId, type, complainNumber, status, managerUsername, Instant.now());
+            recent[(int) (event.getId() % recent.length)] = event;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.accepts(event)) {
+                    // a builder is written to once, never shared between emitters
+                    subscriber.offer(toSse(event));
+                }
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(ComplainEvent event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name(event.getType().name().toLowerCase())
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final String managerUsername;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean draining;
+
+        private Subscriber(SseEmitter emitter, String managerUsername) {
+            this.emitter = emitter;
+            this.managerUsername = managerUsername;
+        }
+
+        private boolean accepts(ComplainEvent event) {
+            return managerUsername == null || managerUsername.equals(event.getManagerUsername());
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (pending.size() >= queueSize) {
+                    pending.clear();
+                    subscribers.remove(this);
+                    overflowed.increment();
+                    emitter.complete();
+                    return;
+                }
+                pending.add(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            List<SseEmitter.SseEventBuilder> batch = new ArrayList<>();
+            while (true) {
+                synchronized (this) {
+                    if (pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    batch.addAll(pending);
+                    pending.clear();
+                }
+                try {
+                    for (SseEmitter.SseEventBuilder event : batch) {
+                        emitter.send(event);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // gone or already completed; onError/onCompletion remove it as well
+                    subscribers.remove(this);
+                    synchronized (this) {
+                        pending.clear();
+                        draining = false;
+                    }
+                    return;
+                }
+                batch.clear();
+            }
+        }
+    }
+}
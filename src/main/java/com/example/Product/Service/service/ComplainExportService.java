@@ -0,0 +1,117 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.dto.ComplainListView;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.enums.ExportFormat;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes complains as CSV or NDJSON straight from a forward-only query to the output, one row at a
+ * time: the rows are read fetch-size at a time, nothing is collected, so memory does not grow with
+ * the export. Runs in one read-only transaction for the whole export. Archived complains are not
+ * included.
+ */
+@Service
+public class ComplainExportService {
+    private static final String[] CSV_HEADER = {"complainNumber", "complainDate", "status", "username", "mobile", "email",
+            "address", "complain", "complainResponse", "managerName", "managerEmail", "managerMobile"};
+
+    private final ComplainRepo complainRepo;
+    private final ComplainService complainService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public ComplainExportService(ComplainRepo complainRepo, ComplainService complainService, ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.complainRepo = complainRepo;
+        this.complainService = complainService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Every filter is optional (null); the date range is inclusive. The output stream is flushed, not closed.
+     */
+    public void export(LocalDate from, LocalDate to, ComplainStatus status, String managerUsername, ExportFormat format,
+                       boolean gzip, OutputStream out) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? compressed : out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == ExportFormat.CSV) {
+            writeCsvRow(writer, (Object[]) CSV_HEADER);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(transaction -> {
+                try (Stream<ComplainListView> views = complainRepo.streamListViews(from, to, status, managerUsername)) {
+                    views.forEach(view -> {
+                        try {
+                            write(writer, view, format);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // mostly the client going away mid-export
+            throw e.getCause();
+        }
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+    }
+
+    private void write(Writer writer, ComplainListView view, ExportFormat format) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(complainService.convertToDto(view)));
+            writer.write('\n');
+            return;
+        }
+        writeCsvRow(writer, view.getComplainNumber(), view.getComplainDate(), view.getStatus(), view.getUsername(),
+                view.getMobile(), view.getEmail(), view.getAddress(), view.getComplain(), view.getComplainResponse(),
+                view.getManagerName(), view.getManagerEmail(), view.getManagerMobile());
+    }
+
+    // RFC 4180: a field with a comma, quote or line break is quoted, quotes doubled; null is empty.
+    // A field a spreadsheet would run as a formula gets a leading ' and is quoted
+    private static void writeCsvRow(Writer writer, Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] == null) {
+                continue;
+            }
+            String field = fields[i].toString();
+            boolean formula = !field.isEmpty() && "=+-@\t\r".indexOf(field.charAt(0)) >= 0;
+            if (formula) {
+                field = "'" + field;
+            }
+            if (!formula && field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+                writer.write(field);
+            } else {
+                writer.write('"');
+                writer.write(field.replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+        writer.write("\r\n");
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.Product.Service.service;
+
+/**
+ * No complain has the given number. Controllers answer it with 404.
+ */
+public class ComplainNotFoundException extends RuntimeException {
+    public ComplainNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.model.ComplainSequence;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.repository.ComplainSequenceRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out complain numbers of the form {@code yyyyMMdd + (1001 + sequence)}.
+ * <p>
+ * Sequence values are reserved in blocks from the {@link ComplainSequence} row of the day
+ * (hi/lo style) under a row lock, so several app instances sharing one database never
+ * overlap. Inside a block numbers come from an atomic counter without touching the database.
+ * Numbers are unique but not gap free: a block that is not used up before a restart is lost.
+ */
+@Service
+public class ComplainNumberAllocator {
+    private static final DateTimeFormatter NUMBER_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long FIRST_NUMBER = 1001;
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final ComplainSequenceRepo complainSequenceRepo;
+    private final ComplainRepo complainRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final ReentrantLock reserveLock = new ReentrantLock();
+    private volatile Block block;
+
+    public ComplainNumberAllocator(ComplainSequenceRepo complainSequenceRepo,
+                                   ComplainRepo complainRepo,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${complain.number.block-size:50}") int blockSize) {
+        this.complainSequenceRepo = complainSequenceRepo;
+        this.complainRepo = complainRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    public String nextComplainNumber(LocalDate date) {
+        return nextComplainNumbers(date, 1).get(0);
+    }
+
+    /**
+     * Allocates {@code count} numbers for the given day, in increasing order.
+     */
+    public List<String> nextComplainNumbers(LocalDate date, int count) {
+        List<String> numbers = new ArrayList<>(count);
+        while (numbers.size() < count) {
+            Block current = block;
+            if (current == null || !current.date.equals(date) || !current.take(count - numbers.size(), numbers)) {
+                refill(current, date, count - numbers.size());
+            }
+        }
+        return numbers;
+    }
+
+    private void refill(Block seen, LocalDate date, int needed) {
+        reserveLock.lock();
+        try {
+            // another thread may already have replaced the block we saw exhausted
+            if (block != seen) {
+                return;
+            }
+            long size = Math.max(blockSize, needed);
+            block = new Block(date, reserve(date, size), size);
+        } finally {
+            reserveLock.unlock();
+        }
+    }
+
+    private long reserve(LocalDate date, long size) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return reserveInTransaction(date, size);
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                // another instance created the row of the day first, or (MySQL) both locked the gap where
+                // it goes and one was chosen as deadlock victim; lock and use the row that is there now
+                if (attempt == MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private long reserveInTransaction(LocalDate date, long size) {
+        Long start = transactionTemplate.execute(status -> {
+            ComplainSequence sequence = complainSequenceRepo.findForUpdate(date)
+                    .orElseGet(() -> createSequence(date));
+            long first = sequence.getNextValue();
+            sequence.setNextValue(first + size);
+            complainSequenceRepo.save(sequence);
+            return first;
+        });
+        return start;
+    }
+
+    private ComplainSequence createSequence(LocalDate date) {
+        // continue after complains numbered before the sequence row existed
+        complainSequenceRepo.insert(date, complainRepo.countByComplainDate(date));
+        return complainSequenceRepo.findForUpdate(date).orElseThrow();
+    }
+
+    private static String format(LocalDate date, long value) {
+        return date.format(NUMBER_DATE) + (FIRST_NUMBER + value);
+    }
+
+    private static final class Block {
+        private final LocalDate date;
+        private final AtomicLong next;
+        private final long limit;
+
+        private Block(LocalDate date, long start, long size) {
+            this.date = date;
+            this.next = new AtomicLong(start);
+            this.limit = start + size;
+        }
+
+        /**
+         * Claims up to {@code wanted} values from this block, returns false once it is used up.
+         */
+        private boolean take(int wanted, List<String> into) {
+            long start;
+            long end;
+            do {
+                start = next.get();
+                if (start >= limit) {
+                    return false;
+                }
+                end = Math.min(limit, start + wanted);
+            } while (!next.compareAndSet(start, end));
+            for (long value = start; value < end; value++) {
+                into.add(format(date, value));
+            }
+            return true;
+        }
+    }
+}
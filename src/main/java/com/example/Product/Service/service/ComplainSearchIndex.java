@@ -0,0 +1,559 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.dto.ComplainSearchView;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.model.Complain;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over the complain text, address, username, email and response, for the
+ * admin full-text search.
+ * <p>
+ * Text is lowercased and split on anything that is not a letter or digit; tokens of one character
+ * are dropped. Every term keeps the docs it occurs in (sorted) with a weight per doc, the sum of the
+ * weights of the fields it occurs in (username and email 3, complain 2, address and response 1).
+ * A query matches docs containing every query token, a token of 3+ characters also matching terms
+ * it is a prefix of (at most complain.search-index.max-expansions terms per token, itself included). Docs are ranked by
+ * weight times idf, the rarest token is intersected first.
+ * <p>
+ * Loaded at startup by streaming the table in the background ({@link #isReady()} is false until
+ * then, a failed load is retried every complain.search-index.retry-interval and reported by
+ * {@link #getLoadFailure()}), afterwards kept current by the write paths after commit. Changes committed while loading
+ * are re-read once the load is done. Only status and response of a complain ever change.
+ */
+@Slf4j
+@Component
+public class ComplainSearchIndex {
+    private static final int USER_WEIGHT = 3;
+    private static final int COMPLAIN_WEIGHT = 2;
+    private static final int TEXT_WEIGHT = 1;
+    private static final float PREFIX_FACTOR = 0.8f;
+    private static final byte ARCHIVED = -1;
+
+    private final ComplainRepo complainRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxExpansions;
+    private final Duration retryInterval;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Integer> docByNumber = new HashMap<>();
+    private final Map<Integer, String> responses = new HashMap<>();
+    private String[] numbers = new String[1024];
+    private byte[] statuses = new byte[1024];
+    private int docCount;
+    // numbers changed while loading, null once loaded
+    private Set<String> dirty = new HashSet<>();
+    private volatile boolean ready;
+    private volatile String loadFailure;
+
+    public ComplainSearchIndex(ComplainRepo complainRepo, PlatformTransactionManager transactionManager,
+                               @Value("${complain.search-index.enabled:true}") boolean enabled,
+                               @Value("${complain.search-index.max-expansions:64}") int maxExpansions,
+                               @Value("${complain.search-index.retry-interval:30s}") Duration retryInterval) {
+        this.complainRepo = complainRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxExpansions = maxExpansions;
+        this.retryInterval = retryInterval;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Why the last load failed while it is being retried, null otherwise.
+     */
+    public String getLoadFailure() {
+        return loadFailure;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        if (enabled) {
+            Thread.ofPlatform().daemon().name("complain-search-index").start(() -> {
+                while (true) {
+                    try {
+                        load();
+                        loadFailure = null;
+                        return;
+                    } catch (RuntimeException e) {
+                        loadFailure = String.valueOf(e.getMessage());
+                        log.error("complain search index could not be loaded, retrying in {}", retryInterval, e);
+                    }
+                    try {
+                        Thread.sleep(retryInterval);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Streams every complain into the index, then re-reads the ones changed meanwhile. A load that
+     * fails part way can simply run again: complains already in the index are skipped, and whatever
+     * changed in the meantime is still collected to be re-read.
+     */
+    public void load() {
+        long started = System.nanoTime();
+        List<ComplainSearchView> chunk = new ArrayList<>(1000);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ComplainSearchView> views = complainRepo.streamSearchViews()) {
+                views.forEach(view -> {
+                    chunk.add(view);
+                    if (chunk.size() == 1000) {
+                        insertMissing(chunk);
+                        chunk.clear();
+                    }
+                });
+            }
+        });
+        insertMissing(chunk);
+        Set<String> changed;
+        lock.writeLock().lock();
+        try {
+            changed = dirty;
+            dirty = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!changed.isEmpty()) {
+            List<ComplainSearchView> views;
+            try {
+                views = transactionTemplate.execute(status -> complainRepo.findSearchViews(changed));
+            } catch (RuntimeException e) {
+                // hand them to the next attempt
+                lock.writeLock().lock();
+                try {
+                    dirty = changed;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            refresh(views);
+            // no longer in the table: archived meanwhile
+            Set<String> gone = new HashSet<>(changed);
+            views.forEach(view -> gone.remove(view.getComplainNumber()));
+            markArchived(gone);
+        }
+        ready = true;
+        log.info("complain search index loaded {} complains in {} ms", size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public void added(List<Complain> complains) {
+        List<ComplainSearchView> views = new ArrayList<>(complains.size());
+        for (Complain complain : complains) {
+            views.add(new ComplainSearchView(complain.getComplainNumber(), complain.getUsername(), complain.getEmail(),
+                    complain.getAddress(), complain.getComplain(), complain.getComplainResponse(), complain.getStatus()));
+        }
+        AfterCommit.run(() -> refresh(views));
+    }
+
+    public void statusChanged(Collection<String> complainNumbers, ComplainStatus status) {
+        AfterCommit.run(() -> change(complainNumbers, status, null));
+    }
+
+    public void responded(Collection<String> complainNumbers, String response) {
+        AfterCommit.run(() -> change(complainNumbers, null, response));
+    }
+
+    /**
+     * Archived complains are no longer found; their terms stay until the next restart.
+     */
+    public void archived(Collection<String> complainNumbers) {
+        AfterCommit.run(() -> markArchived(complainNumbers));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Numbers of the best {@code limit} complains containing every token of {@code query}, best first.
+     *
+     * @param status only complains of this status, null for all
+     */
+    public List<String> search(String query, ComplainStatus status, int limit) {
+        List<String> tokens = new ArrayList<>(tokens(query));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Match[]> matches = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                Match[] expansions = expand(token);
+                if (expansions.length == 0) {
+                    return List.of();
+                }
+                matches.add(expansions);
+            }
+            matches.sort((a, b) -> Long.compare(documents(a), documents(b)));
+            Candidates candidates = union(matches.get(0));
+            for (int i = 1; i < matches.size() && candidates.size > 0; i++) {
+                candidates = candidates.intersect(matches.get(i));
+            }
+            return top(candidates, status, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= 2) {
+                    tokens.add(lower.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void insertMissing(List<ComplainSearchView> views) {
+        lock.writeLock().lock();
+        try {
+            for (ComplainSearchView view : views) {
+                // added or re-read by a write path already, which saw a newer state
+                if (!docByNumber.containsKey(view.getComplainNumber())) {
+                    insert(view);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refresh(List<ComplainSearchView> views) {
+        lock.writeLock().lock();
+        try {
+            for (ComplainSearchView view : views) {
+                Integer doc = docByNumber.get(view.getComplainNumber());
+                if (doc == null) {
+                    insert(view);
+                } else {
+                    statuses[doc] = (byte) view.getStatus().ordinal();
+                    setResponse(doc, view.getComplainResponse());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markArchived(Collection<String> complainNumbers) {
+        lock.writeLock().lock();
+        try {
+            for (String complainNumber : complainNumbers) {
+                Integer doc = docByNumber.get(complainNumber);
+                if (doc != null) {
+                    statuses[doc] = ARCHIVED;
+                }
+                if (dirty != null) {
+                    dirty.add(complainNumber);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void change(Collection<String> complainNumbers, ComplainStatus status, String response) {
+        lock.writeLock().lock();
+        try {
+            for (String complainNumber : complainNumbers) {
+                Integer doc = docByNumber.get(complainNumber);
+                if (dirty != null) {
+                    dirty.add(complainNumber);
+                }
+                if (doc == null) {
+                    continue;
+                }
+                if (status != null) {
+                    statuses[doc] = (byte) status.ordinal();
+                }
+                if (response != null) {
+                    setResponse(doc, response);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(ComplainSearchView view) {
+        int doc = docCount++;
+        if (doc == numbers.length) {
+            numbers = Arrays.copyOf(numbers, doc * 2);
+            statuses = Arrays.copyOf(statuses, doc * 2);
+        }
+        numbers[doc] = view.getComplainNumber();
+        statuses[doc] = (byte) view.getStatus().ordinal();
+        docByNumber.put(view.getComplainNumber(), doc);
+        index(doc, view.getUsername(), USER_WEIGHT);
+        index(doc, view.getEmail(), USER_WEIGHT);
+        index(doc, view.getComplain(), COMPLAIN_WEIGHT);
+        index(doc, view.getAddress(), TEXT_WEIGHT);
+        setResponse(doc, view.getComplainResponse());
+    }
+
+    private void setResponse(int doc, String response) {
+        String previous = responses.get(doc);
+        if (previous != null && previous.equals(response)) {
+            return;
+        }
+        for (String token : tokens(previous)) {
+            Postings postings = terms.get(token);
+            if (postings != null && postings.remove(doc, TEXT_WEIGHT) == 0) {
+                terms.remove(token);
+            }
+        }
+        if (response == null) {
+            responses.remove(doc);
+        } else {
+            responses.put(doc, response);
+            index(doc, response, TEXT_WEIGHT);
+        }
+    }
+
+    private void index(int doc, String text, int weight) {
+        for (String token : tokens(text)) {
+            terms.computeIfAbsent(token, key -> new Postings()).add(doc, weight);
+        }
+    }
+
+    // the exact term plus, for 3+ characters, the terms it is a prefix of
+    private Match[] expand(String token) {
+        List<Match> expansions = new ArrayList<>();
+        double total = Math.max(docCount, 1);
+        Postings exact = terms.get(token);
+        if (exact != null) {
+            expansions.add(new Match(exact, (float) Math.log(1 + total / exact.size)));
+        }
+        if (token.length() >= 3) {
+            NavigableMap<String, Postings> prefixed = terms.subMap(token, false, token + Character.MAX_VALUE, false);
+            for (Postings postings : prefixed.values()) {
+                if (expansions.size() >= maxExpansions) {
+                    break;
+                }
+                expansions.add(new Match(postings, PREFIX_FACTOR * (float) Math.log(1 + total / postings.size)));
+            }
+        }
+        return expansions.toArray(new Match[0]);
+    }
+
+    private static long documents(Match[] expansions) {
+        long documents = 0;
+        for (Match match : expansions) {
+            documents += match.postings.size;
+        }
+        return documents;
+    }
+
+    // docs matching any expansion of the first token, the best expansion's score per doc
+    private static Candidates union(Match[] expansions) {
+        Candidates candidates = expansions[0].candidates();
+        for (int i = 1; i < expansions.length; i++) {
+            candidates = candidates.merge(expansions[i].candidates());
+        }
+        return candidates;
+    }
+
+    private List<String> top(Candidates candidates, ComplainStatus status, int limit) {
+        // min-heap on score, newer (higher) doc first on ties
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, (a, b) -> {
+            int byScore = Float.compare(candidates.scores[a], candidates.scores[b]);
+            return byScore != 0 ? byScore : Integer.compare(candidates.docs[a], candidates.docs[b]);
+        });
+        for (int i = 0; i < candidates.size; i++) {
+            byte docStatus = statuses[candidates.docs[i]];
+            if (docStatus == ARCHIVED || (status != null && docStatus != status.ordinal())) {
+                continue;
+            }
+            if (heap.size() < limit) {
+                heap.add(i);
+            } else if (heap.comparator().compare(i, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        String[] ranked = new String[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = numbers[candidates.docs[heap.poll()]];
+        }
+        return Arrays.asList(ranked);
+    }
+
+    /**
+     * Sorted docs of one term with the summed field weight per doc. Docs mostly arrive in
+     * increasing order (new complains), so adding is an append; responses go in by binary search.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private byte[] weights = new byte[4];
+        private int size;
+
+        private void add(int doc, int weight) {
+            int at = size > 0 && docs[size - 1] < doc ? -size - 1 : Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0) {
+                weights[at] += (byte) weight;
+                return;
+            }
+            at = -at - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(docs, at, docs, at + 1, size - at);
+            System.arraycopy(weights, at, weights, at + 1, size - at);
+            docs[at] = doc;
+            weights[at] = (byte) weight;
+            size++;
+        }
+
+        // returns the docs left
+        private int remove(int doc, int weight) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0) {
+                weights[at] -= (byte) weight;
+                if (weights[at] <= 0) {
+                    System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+                    System.arraycopy(weights, at + 1, weights, at, size - at - 1);
+                    size--;
+                }
+            }
+            return size;
+        }
+    }
+
+    private record Match(Postings postings, float idf) {
+        private Candidates candidates() {
+            Candidates candidates = new Candidates(postings.size);
+            for (int i = 0; i < postings.size; i++) {
+                candidates.docs[i] = postings.docs[i];
+                candidates.scores[i] = postings.weights[i] * idf;
+            }
+            candidates.size = postings.size;
+            return candidates;
+        }
+    }
+
+    /**
+     * Docs (sorted) still matching every token so far, with their score.
+     */
+    private static final class Candidates {
+        private final int[] docs;
+        private final float[] scores;
+        private int size;
+
+        private Candidates(int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        private Candidates merge(Candidates other) {
+            Candidates merged = new Candidates(size + other.size);
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                int n = merged.size++;
+                if (j == other.size || i < size && docs[i] < other.docs[j]) {
+                    merged.docs[n] = docs[i];
+                    merged.scores[n] = scores[i++];
+                } else if (i == size || other.docs[j] < docs[i]) {
+                    merged.docs[n] = other.docs[j];
+                    merged.scores[n] = other.scores[j++];
+                } else {
+                    merged.docs[n] = docs[i];
+                    merged.scores[n] = Math.max(scores[i++], other.scores[j++]);
+                }
+            }
+            return merged;
+        }
+
+        // keeps the docs found in any expansion, walking the shorter side: a merge when the lists are
+        // of similar length, a binary search per candidate when the candidates are few
+        private Candidates intersect(Match[] expansions) {
+            float[] best = new float[size];
+            Arrays.fill(best, -1f);
+            for (Match match : expansions) {
+                Postings postings = match.postings;
+                if ((long) size * (32 - Integer.numberOfLeadingZeros(postings.size)) < postings.size) {
+                    int from = 0;
+                    for (int i = 0; i < size; i++) {
+                        int at = Arrays.binarySearch(postings.docs, from, postings.size, docs[i]);
+                        if (at >= 0) {
+                            best[i] = Math.max(best[i], postings.weights[at] * match.idf);
+                            from = at + 1;
+                        } else {
+                            from = -at - 1;
+                        }
+                    }
+                } else {
+                    int j = 0;
+                    for (int i = 0; i < size && j < postings.size; i++) {
+                        while (j < postings.size && postings.docs[j] < docs[i]) {
+                            j++;
+                        }
+                        if (j < postings.size && postings.docs[j] == docs[i]) {
+                            best[i] = Math.max(best[i], postings.weights[j] * match.idf);
+                        }
+                    }
+                }
+            }
+            Candidates kept = new Candidates(size);
+            for (int i = 0; i < size; i++) {
+                if (best[i] >= 0) {
+                    kept.docs[kept.size] = docs[i];
+                    kept.scores[kept.size++] = scores[i] + best[i];
+                }
+            }
+            return kept;
+        }
+    }
+}
@@ -1,21 +1,50 @@
 package com.example.Product.Service.service;
 
+import com.example.Product.Service.dto.ComplainCursor;
 import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.dto.ComplainListView;
 import com.example.Product.Service.dto.ComplainOutputDto;
+import com.example.Product.Service.dto.CursorPage;
+import com.example.Product.Service.enums.ComplainEventType;
 import com.example.Product.Service.enums.ComplainStatus;
 import com.example.Product.Service.model.Complain;
 import com.example.Product.Service.repository.ComplainRepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 @Service
 public class ComplainService {
     @Autowired
     private ComplainRepo complainRepo;
+    @Autowired
+    private ComplainNumberAllocator complainNumberAllocator;
+    @Autowired
+    private ComplainTrackingCache complainTrackingCache;
+    @Autowired
+    private ComplainEventHub complainEventHub;
+    @Autowired
+    private ComplainStats complainStats;
+    @Autowired
+    private ComplainSearchIndex complainSearchIndex;
+    @Autowired
+    private ComplainArchive complainArchive;
+    @Value("${complain.search.default-limit:50}")
+    private int searchDefaultLimit;
+    @Value("${complain.search.max-limit:500}")
+    private int searchMaxLimit;
+    @Value("${complain.page.default-size:100}")
+    private int pageDefaultSize;
+    @Value("${complain.page.max-size:1000}")
+    private int pageMaxSize;
 
     public ComplainOutputDto convertToDto(Complain complain){
         ComplainOutputDto complainOutputDto = new ComplainOutputDto();
@@ -28,13 +57,94 @@ public class ComplainService {
         complainOutputDto.setAddress(complain.getAddress());
         complainOutputDto.setStatus(complain.getStatus());
         complainOutputDto.setComplainResponse(complain.getComplainResponse());
-        complainOutputDto.setManagerEmail(complain.getManager().getEmail());
-        complainOutputDto.setManagerName(complain.getManager().getFullName());
-        complainOutputDto.setManagerMobile(complain.getManager().getMobile());
+        // callers load the manager in the same select (entity graph on the repository method)
+        if(complain.getManager() != null){
+            complainOutputDto.setManagerEmail(complain.getManager().getEmail());
+            complainOutputDto.setManagerName(complain.getManager().getFullName());
+            complainOutputDto.setManagerMobile(complain.getManager().getMobile());
+            complainOutputDto.setManagerVersion(complain.getManager().getVersion());
+        }
+        complainOutputDto.setVersion(complain.getVersion());
         return complainOutputDto;
     }
 
+    public ComplainOutputDto convertToDto(ComplainListView view){
+        ComplainOutputDto complainOutputDto = new ComplainOutputDto();
+        complainOutputDto.setComplain(view.getComplain());
+        complainOutputDto.setComplainDate(view.getComplainDate());
+        complainOutputDto.setComplainNumber(view.getComplainNumber());
+        complainOutputDto.setUsername(view.getUsername());
+        complainOutputDto.setMobile(view.getMobile());
+        complainOutputDto.setEmail(view.getEmail());
+        complainOutputDto.setAddress(view.getAddress());
+        complainOutputDto.setStatus(view.getStatus());
+        complainOutputDto.setComplainResponse(view.getComplainResponse());
+        complainOutputDto.setManagerEmail(view.getManagerEmail());
+        complainOutputDto.setManagerName(view.getManagerName());
+        complainOutputDto.setManagerMobile(view.getManagerMobile());
+        complainOutputDto.setVersion(view.getVersion());
+        complainOutputDto.setManagerVersion(view.getManagerVersion());
+        return complainOutputDto;
+    }
+    /**
+     * Result count for a search: complain.search.default-limit when not given, capped by complain.search.max-limit.
+     */
+    public int searchLimit(Integer limit){
+        return limit == null ? searchDefaultLimit : Math.max(1, Math.min(limit, searchMaxLimit));
+    }
+    /**
+     * Row limit for a keyset listing: complain.page.default-size when not given, capped by complain.page.max-size.
+     */
+    public Limit pageLimit(Integer size){
+        return Limit.of(Math.max(1, Math.min(size == null ? pageDefaultSize : size, pageMaxSize)));
+    }
+    /**
+     * Wraps the rows of a keyset query into a page; only a full page can have a next one.
+     */
+    public <V, T> CursorPage<T> toPage(List<V> rows, Limit limit, Function<V, T> mapper, Function<V, ComplainCursor> position){
+        List<T> items = new ArrayList<>(rows.size());
+        for(V row : rows){
+            items.add(mapper.apply(row));
+        }
+        String nextCursor = null;
+        if(!rows.isEmpty() && rows.size() == limit.max()){
+            nextCursor = position.apply(rows.get(rows.size() - 1)).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
     public String addComplain(ComplainInputDto complainInputDto){
+        LocalDate today = LocalDate.now();
+        String complainNumber = complainNumberAllocator.nextComplainNumber(today);
+        Complain complain = complainRepo.save(newComplain(complainInputDto, today, complainNumber));
+        // the number may have been looked up (and cached as unknown) before it existed
+        complainTrackingCache.invalidate(complainNumber);
+        complainEventHub.publish(ComplainEventType.CREATED, complainNumber, ComplainStatus.PENDING, null);
+        complainStats.created(today, 1);
+        complainSearchIndex.added(List.of(complain));
+        return complainNumber;
+    }
+    /**
+     * Stores a batch of complains with one saveAll transaction. Numbers for the whole batch are
+     * reserved up front (outside that transaction) and the rows go out as JDBC batch inserts;
+     * the returned numbers follow input order.
+     */
+    public List<String> addComplains(List<ComplainInputDto> complainInputDtos){
+        LocalDate today = LocalDate.now();
+        List<String> complainNumbers = complainNumberAllocator.nextComplainNumbers(today, complainInputDtos.size());
+        List<Complain> complains = new ArrayList<>(complainInputDtos.size());
+        for(int i = 0; i < complainInputDtos.size(); i++){
+            complains.add(newComplain(complainInputDtos.get(i), today, complainNumbers.get(i)));
+        }
+        complainRepo.saveAll(complains);
+        complainTrackingCache.invalidateAll(complainNumbers);
+        complainStats.created(today, complainNumbers.size());
+        complainSearchIndex.added(complains);
+        for(String complainNumber : complainNumbers){
+            complainEventHub.publish(ComplainEventType.CREATED, complainNumber, ComplainStatus.PENDING, null);
+        }
+        return complainNumbers;
+    }
+    private Complain newComplain(ComplainInputDto complainInputDto, LocalDate complainDate, String complainNumber){
         Complain complain = new Complain();
         complain.setComplain(complainInputDto.getComplain());
         complain.setEmail(complainInputDto.getEmail());
@@ -42,55 +152,42 @@ public class ComplainService {
         complain.setUsername(complainInputDto.getUsername());
         complain.setMobile(complainInputDto.getMobile());
         complain.setStatus(ComplainStatus.PENDING);
-        complain.setComplainDate(LocalDate.now());
-        String complainNumber = LocalDate.now().toString().replace("-","")
-                + (1001 + complainRepo.countByComplainDate(LocalDate.now())) ;
+        complain.setComplainDate(complainDate);
         complain.setComplainNumber(complainNumber);
-        complainRepo.save(complain);
-        return complainNumber;
+        return complain;
     }
     public ComplainOutputDto getComplainByComplainNumber(String complainNumber){
-        Complain complain = complainRepo.findByComplainNumber(complainNumber).orElseThrow(()->new RuntimeException("No Complain Found!!"));
-        ComplainOutputDto complainOutputDto = new ComplainOutputDto();
-        complainOutputDto.setComplain(complain.getComplain());
-        complainOutputDto.setMobile(complain.getMobile());
-        complainOutputDto.setComplainDate(complain.getComplainDate());
-        complainOutputDto.setUsername(complain.getUsername());
-        complainOutputDto.setEmail(complain.getEmail());
-        complainOutputDto.setComplainNumber(complain.getComplainNumber());
-        complainOutputDto.setAddress(complain.getAddress());
-        complainOutputDto.setStatus(complain.getStatus());
-        if(complain.getStatus() == ComplainStatus.PENDING){
-            return complainOutputDto;
-        } else {
-            complainOutputDto.setManagerEmail(complain.getManager().getEmail());
-            complainOutputDto.setManagerName(complain.getManager().getFullName());
-            complainOutputDto.setManagerMobile(complain.getManager().getMobile());
-            complainOutputDto.setComplainResponse(complain.getComplainResponse());
-            return complainOutputDto;
-        }
+        // archived (old closed) complains are no longer in the table
+        return complainTrackingCache.get(complainNumber,
+                        number -> complainRepo.findOutputByComplainNumber(number).or(() -> complainArchive.find(number))
+                                .map(this::hidePendingDetails))
+                .orElseThrow(()->new RuntimeException("No Complain Found!!"));
     }
-    public List<ComplainOutputDto> getComplainByComplainNumberAndStatus(String status, String complainNumber){
-        List<Complain> complainList = complainRepo.findByStatusAndComplainNumberEndsWith(ComplainStatus.valueOf(status.toUpperCase()),complainNumber);
-        List<ComplainOutputDto> complainOutputDtos = new ArrayList<>();
-        for(Complain complain : complainList){
-            if(status.equals(ComplainStatus.PENDING.toString())){
-                ComplainOutputDto complainOutputDto = new ComplainOutputDto();
-                complainOutputDto.setComplain(complain.getComplain());
-                complainOutputDto.setMobile(complain.getMobile());
-                complainOutputDto.setComplainDate(complain.getComplainDate());
-                complainOutputDto.setUsername(complain.getUsername());
-                complainOutputDto.setEmail(complain.getEmail());
-                complainOutputDto.setComplainNumber(complain.getComplainNumber());
-                complainOutputDto.setAddress(complain.getAddress());
-                complainOutputDto.setStatus(complain.getStatus());
-                complainOutputDtos.add(complainOutputDto);
-            }
-            else {
-                complainOutputDtos.add(convertToDto(complain));
-            }
+    /**
+     * Complains of the given status whose number ends with {@code complainNumber}, at most {@code limit}
+     * of them (default and cap come from complain.search.*). The suffix is matched as a prefix of the
+     * reversed number so the lookup is an index range scan; LIKE wildcards in it are escaped.
+     */
+    public List<ComplainOutputDto> getComplainByComplainNumberAndStatus(String status, String complainNumber, Integer limit){
+        int size = searchLimit(limit);
+        String reversedSuffix = new StringBuilder(complainNumber).reverse().toString()
+                .replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        List<ComplainOutputDto> complainOutputDtos = complainRepo.findOutputsByStatusAndReversedPrefix(
+                ComplainStatus.valueOf(status.toUpperCase()), reversedSuffix,
+                PageRequest.of(0, size, Sort.by("reversedComplainNumber")));
+        for(ComplainOutputDto complainOutputDto : complainOutputDtos){
+            hidePendingDetails(complainOutputDto);
         }
-
         return complainOutputDtos;
     }
+    // a pending complain has no manager yet and its response is not shown
+    private ComplainOutputDto hidePendingDetails(ComplainOutputDto complainOutputDto){
+        if(complainOutputDto.getStatus() == ComplainStatus.PENDING){
+            complainOutputDto.setComplainResponse(null);
+            complainOutputDto.setManagerName(null);
+            complainOutputDto.setManagerEmail(null);
+            complainOutputDto.setManagerMobile(null);
+        }
+        return complainOutputDto;
+    }
 }
@@ -0,0 +1,175 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.dto.ComplainCountView;
+import com.example.Product.Service.dto.ComplainStatsDto;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Complain counts for /stats by status, by manager and status, and by day, kept in memory.
+ * <p>
+ * Counted from the database once at startup, then moved by the write paths (after commit) on
+ * LongAdders, so concurrent writers do not contend on one counter. Every
+ * complain.stats.reconcile-interval the counts are taken from the database again and swapped in; a
+ * change committed while that runs may be off by one until the next run. The difference found is
+ * added to complain.stats.drift.
+ */
+@Slf4j
+@Component
+public class ComplainStats {
+    private final ComplainRepo complainRepo;
+    private final int days;
+    private final Counter drift;
+    private volatile Counts counts = new Counts();
+
+    public ComplainStats(ComplainRepo complainRepo, MeterRegistry meterRegistry,
+                         @Value("${complain.stats.days:30}") int days) {
+        this.complainRepo = complainRepo;
+        this.days = days;
+        this.drift = meterRegistry.counter("complain.stats.drift");
+    }
+
+    public void created(LocalDate complainDate, int count) {
+        AfterCommit.run(() -> {
+            Counts current = counts;
+            current.byStatus.get(ComplainStatus.PENDING).add(count);
+            current.day(complainDate).add(count);
+        });
+    }
+
+    public void moved(ComplainStatus fromStatus, String fromManager, ComplainStatus toStatus, String toManager) {
+        movedAll(List.of(new Move(fromStatus, fromManager, toStatus, toManager)));
+    }
+
+    public void movedAll(List<Move> moves) {
+        AfterCommit.run(() -> {
+            Counts current = counts;
+            for (Move move : moves) {
+                current.byStatus.get(move.fromStatus()).decrement();
+                current.byStatus.get(move.toStatus()).increment();
+                if (move.fromManager() != null) {
+                    current.manager(move.fromManager())[move.fromStatus().ordinal()].decrement();
+                }
+                if (move.toManager() != null) {
+                    current.manager(move.toManager())[move.toStatus().ordinal()].increment();
+                }
+            }
+        });
+    }
+
+    /**
+     * Complains taken out of the table by the archiver, counted by manager and status.
+     */
+    public void archived(List<ComplainCountView> removed) {
+        AfterCommit.run(() -> {
+            Counts current = counts;
+            for (ComplainCountView view : removed) {
+                current.byStatus.get(view.getStatus()).add(-view.getCount());
+                if (view.getManagerUsername() != null) {
+                    current.manager(view.getManagerUsername())[view.getStatus().ordinal()].add(-view.getCount());
+                }
+            }
+        });
+    }
+
+    public ComplainStatsDto snapshot() {
+        Counts current = counts;
+        Map<ComplainStatus, Long> byStatus = new EnumMap<>(ComplainStatus.class);
+        current.byStatus.forEach((status, count) -> byStatus.put(status, count.sum()));
+        Map<String, Map<ComplainStatus, Long>> byManager = new TreeMap<>();
+        current.byManager.forEach((manager, counts) -> {
+            Map<ComplainStatus, Long> statuses = new EnumMap<>(ComplainStatus.class);
+            for (ComplainStatus status : ComplainStatus.values()) {
+                statuses.put(status, counts[status.ordinal()].sum());
+            }
+            byManager.put(manager, statuses);
+        });
+        LocalDate since = firstDay();
+        Map<LocalDate, Long> byDay = new TreeMap<>();
+        current.byDay.forEach((day, count) -> {
+            if (!day.isBefore(since)) {
+                byDay.put(day, count.sum());
+            }
+        });
+        return new ComplainStatsDto(byStatus, byManager, byDay);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${complain.stats.reconcile-interval:10m}",
+            fixedDelayString = "${complain.stats.reconcile-interval:10m}")
+    public void reconcile() {
+        Counts fresh = new Counts();
+        for (ComplainCountView view : complainRepo.countByManagerAndStatus()) {
+            fresh.byStatus.get(view.getStatus()).add(view.getCount());
+            if (view.getManagerUsername() != null) {
+                fresh.manager(view.getManagerUsername())[view.getStatus().ordinal()].add(view.getCount());
+            }
+        }
+        for (ComplainCountView view : complainRepo.countByDaySince(firstDay())) {
+            fresh.day(view.getComplainDate()).add(view.getCount());
+        }
+        long difference = 0;
+        for (ComplainStatus status : ComplainStatus.values()) {
+            difference += Math.abs(fresh.byStatus.get(status).sum() - counts.byStatus.get(status).sum());
+        }
+        if (difference > 0) {
+            log.debug("complain stats drifted by {}", difference);
+            drift.increment(difference);
+        }
+        counts = fresh;
+    }
+
+    private LocalDate firstDay() {
+        return LocalDate.now().minusDays(days - 1);
+    }
+
+    /**
+     * A complain moved from one status (and manager, null when unassigned) to another.
+     */
+    public record Move(ComplainStatus fromStatus, String fromManager, ComplainStatus toStatus, String toManager) {
+    }
+
+    private static final class Counts {
+        private final Map<ComplainStatus, LongAdder> byStatus = new EnumMap<>(ComplainStatus.class);
+        private final Map<String, LongAdder[]> byManager = new ConcurrentHashMap<>();
+        private final Map<LocalDate, LongAdder> byDay = new ConcurrentHashMap<>();
+
+        private Counts() {
+            // filled up front and never modified after, reads need no lock
+            for (ComplainStatus status : ComplainStatus.values()) {
+                byStatus.put(status, new LongAdder());
+            }
+        }
+
+        private LongAdder[] manager(String username) {
+            return byManager.computeIfAbsent(username, key -> {
+                LongAdder[] counts = new LongAdder[ComplainStatus.values().length];
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] = new LongAdder();
+                }
+                return counts;
+            });
+        }
+
+        private LongAdder day(LocalDate complainDate) {
+            return byDay.computeIfAbsent(complainDate, key -> new LongAdder());
+        }
+    }
+}
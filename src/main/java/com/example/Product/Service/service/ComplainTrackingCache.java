@@ -0,0 +1,90 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.dto.ComplainOutputDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Public tracking responses by complain number, including "not found" answers.
+ * <p>
+ * Found complains stay for complain.tracking-cache.ttl, unknown numbers only for
+ * complain.tracking-cache.negative-ttl so that scraping random numbers is absorbed without hiding a
+ * new complain for long. Every write to a complain (and every new complain number) invalidates its
+ * entry; inside a transaction the entry is dropped again after commit, so a read racing the
+ * write cannot put the old state back. Cached DTOs are shared and must not be modified.
+ */
+@Component
+public class ComplainTrackingCache {
+    private final Cache<String, Optional<ComplainOutputDto>> complains;
+
+    public ComplainTrackingCache(MeterRegistry meterRegistry,
+                                 @Value("${complain.tracking-cache.max-size:50000}") long maxSize,
+                                 @Value("${complain.tracking-cache.ttl:10m}") Duration ttl,
+                                 @Value("${complain.tracking-cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.complains = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new FoundOrMissing(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, complains, "complain.tracking");
+    }
+
+    public Optional<ComplainOutputDto> get(String complainNumber, Function<String, Optional<ComplainOutputDto>> loader) {
+        return complains.get(complainNumber, loader);
+    }
+
+    public void invalidate(String complainNumber) {
+        complains.invalidate(complainNumber);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    complains.invalidate(complainNumber);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll(Collection<String> complainNumbers) {
+        complains.invalidateAll(complainNumbers);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    complains.invalidateAll(complainNumbers);
+                }
+            });
+        }
+    }
+
+    private record FoundOrMissing(long ttlNanos, long negativeTtlNanos)
+            implements Expiry<String, Optional<ComplainOutputDto>> {
+
+        @Override
+        public long expireAfterCreate(String key, Optional<ComplainOutputDto> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<ComplainOutputDto> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<ComplainOutputDto> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
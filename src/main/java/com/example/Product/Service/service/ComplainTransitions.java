@@ -0,0 +1,111 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.enums.ComplainEventType;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.model.Complain;
+import com.example.Product.Service.model.Manager;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.repository.ManagerRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Single complain state changes along the lifecycle PENDING -> IN_PROCESS -> CLOSED (an IN_PROCESS
+ * complain may be reassigned, a response needs IN_PROCESS).
+ * <p>
+ * Every change is one UPDATE guarded by the status it expects (and bumping version), so two
+ * racing changes cannot both apply and none is lost: the loser updates 0 rows and gets a
+ * {@link ComplainConflictException}. Only a failed change, a reassignment and a close (for the
+ * mail and the manager it is reported to) read the row.
+ */
+@Service
+public class ComplainTransitions {
+    @Autowired
+    private ComplainRepo complainRepo;
+    @Autowired
+    private ManagerRepo managerRepo;
+    @Autowired
+    private ComplainTrackingCache complainTrackingCache;
+    @Autowired
+    private ComplainEventHub complainEventHub;
+    @Autowired
+    private ComplainStats complainStats;
+    @Autowired
+    private ComplainSearchIndex complainSearchIndex;
+    @Autowired
+    private MailingService mailingService;
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    /**
+     * PENDING -> IN_PROCESS; an IN_PROCESS complain is moved to the new manager if nobody changed it meanwhile.
+     */
+    @Transactional
+    public void assign(String complainNumber, String managerUsername){
+        Manager manager = managerRepo.findByUsername(managerUsername).orElseThrow(()->new UsernameNotFoundException("Manager Not Found"));
+        String fromManager = null;
+        if(complainRepo.assign(complainNumber, manager, ComplainStatus.PENDING, ComplainStatus.IN_PROCESS) == 0){
+            // not PENDING: only an IN_PROCESS complain nobody changed since this read can be reassigned
+            Complain complain = current(complainNumber);
+            if(complain.getStatus() != ComplainStatus.IN_PROCESS
+                    || complainRepo.reassign(complainNumber, manager, ComplainStatus.IN_PROCESS, complain.getVersion()) == 0){
+                throw new ComplainConflictException("Complain is " + complain.getStatus() + ", cannot assign!!");
+            }
+            fromManager = complain.getManager().getUsername();
+        }
+        ComplainStatus fromStatus = fromManager == null ? ComplainStatus.PENDING : ComplainStatus.IN_PROCESS;
+        complainTrackingCache.invalidate(complainNumber);
+        complainEventHub.publish(ComplainEventType.ASSIGNED, complainNumber, ComplainStatus.IN_PROCESS, managerUsername);
+        complainStats.moved(fromStatus, fromManager, ComplainStatus.IN_PROCESS, managerUsername);
+        complainSearchIndex.statusChanged(List.of(complainNumber), ComplainStatus.IN_PROCESS);
+    }
+
+    /**
+     * Sets the response of an IN_PROCESS complain assigned to {@code managerUsername}, like the bulk respond.
+     */
+    @Transactional
+    public void respond(String complainNumber, String response, String managerUsername){
+        if(complainRepo.respond(complainNumber, response, ComplainStatus.IN_PROCESS, managerUsername) == 0){
+            Complain complain = current(complainNumber);
+            if(complain.getStatus() == ComplainStatus.IN_PROCESS){
+                throw new ComplainConflictException("Complain is assigned to another manager, cannot respond!!");
+            }
+            throw new ComplainConflictException("Complain is " + complain.getStatus() + ", cannot respond!!");
+        }
+        complainTrackingCache.invalidate(complainNumber);
+        complainEventHub.publish(ComplainEventType.RESPONDED, complainNumber, ComplainStatus.IN_PROCESS, managerUsername);
+        complainSearchIndex.responded(List.of(complainNumber), response);
+    }
+
+    /**
+     * IN_PROCESS -> CLOSED, queueing the mail to the customer in the same transaction.
+     */
+    @Transactional
+    public void close(String complainNumber){
+        if(complainRepo.transition(complainNumber, ComplainStatus.IN_PROCESS, ComplainStatus.CLOSED) == 0){
+            Complain complain = current(complainNumber);
+            throw new ComplainConflictException("Complain is " + complain.getStatus() + ", cannot close!!");
+        }
+        // closed complains do not change any more, this read sees what was closed
+        Complain complain = complainRepo.findByComplainNumber(complainNumber).orElseThrow();
+        String managerUsername = complain.getManager().getUsername();
+        complainTrackingCache.invalidate(complainNumber);
+        complainEventHub.publish(ComplainEventType.CLOSED, complainNumber, ComplainStatus.CLOSED, managerUsername);
+        complainStats.moved(ComplainStatus.IN_PROCESS, managerUsername, ComplainStatus.CLOSED, managerUsername);
+        complainSearchIndex.statusChanged(List.of(complainNumber), ComplainStatus.CLOSED);
+        if(complain.getEmail() != null){
+            SimpleMailMessage mail = mailingService.closedMail(complain);
+            mailOutboxService.enqueue(complain.getEmail(), mail.getSubject(), mail.getText());
+        }
+    }
+
+    private Complain current(String complainNumber){
+        return complainRepo.findByComplainNumber(complainNumber)
+                .orElseThrow(()->new ComplainNotFoundException("Complain Not Found!!"));
+    }
+}
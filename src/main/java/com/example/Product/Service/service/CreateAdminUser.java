@@ -3,6 +3,7 @@ package com.example.Product.Service.service;
 import com.example.Product.Service.config.SecurityConfig;
 import com.example.Product.Service.model.User;
 import com.example.Product.Service.repository.UserRepo;
+import lombok.extern.slf4j.Slf4j;
 import org.hibernate.annotations.Comment;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Component;
 
 import java.security.Security;
 
+@Slf4j
 @Component
 public class CreateAdminUser {
     @Autowired
@@ -29,7 +31,7 @@ public class CreateAdminUser {
               user.setMobile("7701933308");
               user.setPassword(config.encoder().encode("admin"));
               userRepo.save(user);
-              System.out.println("Admin Created!!");
+              log.info("Admin Created!!");
           }
         };
     }
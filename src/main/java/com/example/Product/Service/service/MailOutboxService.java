@@ -0,0 +1,235 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.enums.MailStatus;
+import com.example.Product.Service.model.OutboxMail;
+import com.example.Product.Service.repository.OutboxMailRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox for notification mails.
+ * <p>
+ * {@link #enqueue} only inserts a row in the caller's transaction, so the mail exists exactly when
+ * the change it announces was committed. {@link #dispatch} runs in the background: a short
+ * transaction claims up to mail.outbox.batch-size due rows by moving their next attempt
+ * mail.outbox.claim-ttl ahead, they are sent over one SMTP connection with no transaction or pooled
+ * connection held, and a second short transaction records the outcome. Rows of an instance that
+ * died while sending are due again once the claim runs out; the mail may then go out twice.
+ * A failed mail is retried after mail.outbox.backoff, doubled per attempt up to
+ * mail.outbox.max-backoff, and is marked DEAD after mail.outbox.max-attempts. A drain stops at the
+ * first batch that cannot reach the server. SENT mails are deleted mail.outbox.retention after they
+ * were queued; DEAD ones stay for inspection.
+ */
+@Service
+public class MailOutboxService {
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final OutboxMailRepo outboxMailRepo;
+    private final MailingService mailingService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Duration claimTtl;
+    private final Duration retention;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter dead;
+    private final Timer dispatchTimer;
+
+    public MailOutboxService(OutboxMailRepo outboxMailRepo, MailingService mailingService,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                             @Value("${mail.outbox.batch-size:50}") int batchSize,
+                             @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                             @Value("${mail.outbox.backoff:30s}") Duration backoff,
+                             @Value("${mail.outbox.max-backoff:1h}") Duration maxBackoff,
+                             @Value("${mail.outbox.claim-ttl:15m}") Duration claimTtl,
+                             @Value("${mail.outbox.retention:30d}") Duration retention) {
+        this.outboxMailRepo = outboxMailRepo;
+        this.mailingService = mailingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTtl = claimTtl;
+        this.retention = retention;
+        this.sent = Counter.builder("mail.outbox.sent").register(meterRegistry);
+        this.failed = Counter.builder("mail.outbox.failed").register(meterRegistry);
+        this.dead = Counter.builder("mail.outbox.dead").register(meterRegistry);
+        this.dispatchTimer = Timer.builder("mail.outbox.dispatch").description("SMTP time per batch").register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String to, String subject, String body) {
+        outboxMailRepo.save(pending(to, subject, body, LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(List<SimpleMailMessage> messages) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMail> mails = new ArrayList<>(messages.size());
+        for (SimpleMailMessage message : messages) {
+            mails.add(pending(message.getTo()[0], message.getSubject(), message.getText(), now));
+        }
+        outboxMailRepo.saveAll(mails);
+    }
+
+    private static OutboxMail pending(String to, String subject, String body, LocalDateTime now) {
+        OutboxMail mail = new OutboxMail();
+        mail.setRecipient(to);
+        mail.setSubject(subject);
+        mail.setBody(body);
+        mail.setStatus(MailStatus.PENDING);
+        mail.setNextAttemptAt(now);
+        mail.setCreatedAt(now);
+        return mail;
+    }
+
+    @Scheduled(initialDelayString = "${mail.outbox.poll-interval:5s}", fixedDelayString = "${mail.outbox.poll-interval:5s}")
+    public void drain() {
+        // keep going while full batches come back, a backlog is not left for the next tick; when the
+        // server cannot be reached the rest waits for the next tick instead of a connect timeout per batch
+        Batch batch;
+        do {
+            batch = dispatchBatch();
+        } while (batch.taken() == batchSize && batch.connected());
+    }
+
+    /**
+     * Sends one batch of due mails.
+     * @return how many mails were taken from the outbox
+     */
+    public int dispatch() {
+        return dispatchBatch().taken();
+    }
+
+    /**
+     * Deletes SENT mails created before {@code before}, they only hold recipients and bodies.
+     * @return how many were deleted
+     */
+    public int purgeSent(LocalDateTime before) {
+        int total = 0;
+        int deleted;
+        do {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Long> ids = outboxMailRepo.findIdsByStatusCreatedBefore(MailStatus.SENT, before, Limit.of(PURGE_BATCH_SIZE));
+                return ids.isEmpty() ? 0 : outboxMailRepo.deleteAllByIdIn(ids);
+            });
+            deleted = batch == null ? 0 : batch;
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        return total;
+    }
+
+    @Scheduled(initialDelayString = "${mail.outbox.purge-interval:1h}", fixedDelayString = "${mail.outbox.purge-interval:1h}")
+    public void purge() {
+        purgeSent(LocalDateTime.now().minus(retention));
+    }
+
+    private Batch dispatchBatch() {
+        // the database keeps microseconds, the claim is recognized by its exact deadline
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime claimedUntil = now.plus(claimTtl);
+        List<OutboxMail> due = transactionTemplate.execute(status -> {
+            List<OutboxMail> claimed = outboxMailRepo.findDueForUpdate(MailStatus.PENDING, now, Limit.of(batchSize));
+            for (OutboxMail mail : claimed) {
+                mail.setNextAttemptAt(claimedUntil);
+            }
+            return outboxMailRepo.saveAll(claimed);
+        });
+        if (due == null || due.isEmpty()) {
+            return new Batch(0, true);
+        }
+
+        SimpleMailMessage[] messages = new SimpleMailMessage[due.size()];
+        for (int i = 0; i < due.size(); i++) {
+            OutboxMail mail = due.get(i);
+            messages[i] = mailingService.simpleMail(mail.getRecipient(), mail.getSubject(), mail.getBody());
+        }
+        Map<Object, Exception> failures = Map.of();
+        MailException connectionFailure = null;
+        Timer.Sample sample = Timer.start();
+        try {
+            mailingService.sendAll(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                connectionFailure = e;
+            }
+        } catch (MailException e) {
+            connectionFailure = e;
+        } finally {
+            sample.stop(dispatchTimer);
+        }
+
+        Map<Long, Exception> failureById = new HashMap<>();
+        for (int i = 0; i < due.size(); i++) {
+            Exception failure = connectionFailure != null ? connectionFailure : failures.get(messages[i]);
+            if (failure != null) {
+                failureById.put(due.get(i).getId(), failure);
+            }
+        }
+        LocalDateTime sentAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<OutboxMail> claimed = outboxMailRepo.findAllByIdInForUpdate(due.stream().map(OutboxMail::getId).toList());
+            for (OutboxMail mail : claimed) {
+                // the claim ran out while sending and another dispatch took the row, its outcome counts
+                if (mail.getStatus() != MailStatus.PENDING || !claimedUntil.equals(mail.getNextAttemptAt())) {
+                    continue;
+                }
+                Exception failure = failureById.get(mail.getId());
+                if (failure == null) {
+                    mail.setStatus(MailStatus.SENT);
+                    sent.increment();
+                } else {
+                    retryLater(mail, failure, sentAt);
+                }
+            }
+            outboxMailRepo.saveAll(claimed);
+        });
+        // JavaMailSender reports a refused connection as every message failing
+        return new Batch(due.size(), connectionFailure == null && failureById.size() < due.size());
+    }
+
+    private void retryLater(OutboxMail mail, Exception failure, LocalDateTime now) {
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        String error = String.valueOf(failure.getMessage());
+        mail.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (attempts >= maxAttempts) {
+            mail.setStatus(MailStatus.DEAD);
+            dead.increment();
+            return;
+        }
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        mail.setNextAttemptAt(now.plus(delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay));
+        failed.increment();
+    }
+
+    // connected: the server was reached, even if single mails were refused
+    private record Batch(int taken, boolean connected) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.Product.Service.service;
 
+import com.example.Product.Service.model.Complain;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -11,11 +12,27 @@ public class MailingService {
     private JavaMailSender mailSender;
 
     public  void sendsSimpleMail(String to, String subject, String body){
+        mailSender.send(simpleMail(to, subject, body));
+    }
+    // all messages go over one SMTP connection, failures are reported per message in MailSendException
+    public void sendAll(SimpleMailMessage... messages){
+        mailSender.send(messages);
+    }
+    // sent to the customer when their complain is closed; needs the complain's manager loaded
+    public SimpleMailMessage closedMail(Complain complain){
+        String subject = "Response generated : " + complain.getComplainNumber();
+        String body = "Hello,\n\t" + complain.getUsername() + ", your complain has been closed. Please track your complain " +
+                "with Complain Number : " + complain.getComplainNumber() + "\nVisit Here : http://localhost:5173\n\n\nThank You" +
+                "\nManager Name : " + complain.getManager().getFullName() +
+                "\nManager Email : " + complain.getManager().getEmail();
+        return simpleMail(complain.getEmail(), subject, body);
+    }
+    public SimpleMailMessage simpleMail(String to, String subject, String body){
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject(subject);
         message.setText(body);
         message.setFrom("abhishekrbs.singh@gmial.com");
-        mailSender.send(message);
+        return message;
     }
 }
@@ -1,15 +1,21 @@
 package com.example.Product.Service.service;
 
 import com.example.Product.Service.config.SecurityConfig;
+import com.example.Product.Service.dto.BulkItemResult;
+import com.example.Product.Service.dto.ComplainCursor;
+import com.example.Product.Service.dto.ComplainListView;
 import com.example.Product.Service.dto.ComplainOutputDto;
+import com.example.Product.Service.dto.ComplainVersionView;
+import com.example.Product.Service.dto.CursorPage;
 import com.example.Product.Service.dto.UserInputDto;
 import com.example.Product.Service.dto.UserOutputDto;
 import com.example.Product.Service.enums.ComplainStatus;
-import com.example.Product.Service.model.Complain;
 import com.example.Product.Service.model.Manager;
 import com.example.Product.Service.repository.ComplainRepo;
 import com.example.Product.Service.repository.ManagerRepo;
+import com.example.Product.Service.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
@@ -27,24 +33,49 @@ public class ManagerService {
     private ManagerRepo managerRepo;
     @Autowired
     private ComplainService complainService;
-    public List<ComplainOutputDto> getComplainByManager(String username){
-        List<Complain> complainList = complainRepo.findByManagerAndStatus(managerRepo.findByUsername(username).orElseThrow(
-                        ()->new UsernameNotFoundException("Manager Not found!!!")
-                ),
-               ComplainStatus.IN_PROCESS);
-        List<ComplainOutputDto> complainOutputDtos = new ArrayList<>();
-        for(Complain complain : complainList){
-            complainOutputDtos.add(complainService.convertToDto(complain));
+    @Autowired
+    private PrincipalCache principalCache;
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    @Autowired
+    private ComplainBulkService complainBulkService;
+    @Autowired
+    private ComplainTransitions complainTransitions;
+    public CursorPage<ComplainOutputDto> getComplainByManager(String username, String cursor, Integer size){
+        Limit limit = complainService.pageLimit(size);
+        List<ComplainListView> views;
+        if(cursor == null){
+            views = complainRepo.findListViewsByManager(username, ComplainStatus.IN_PROCESS, limit);
+        } else {
+            ComplainCursor after = ComplainCursor.decode(cursor);
+            views = complainRepo.findListViewsByManagerAfter(username, ComplainStatus.IN_PROCESS, after.getComplainDate(), after.getId(), limit);
         }
-        return complainOutputDtos;
+        return complainService.toPage(views, limit, complainService::convertToDto,
+                view -> new ComplainCursor(view.getComplainDate(), view.getId()));
+    }
+    /**
+     * ETag of the page getComplainByManager would return for the same arguments, from keys and versions only.
+     */
+    public String getComplainByManagerETag(String username, String cursor, Integer size){
+        Limit limit = complainService.pageLimit(size);
+        List<ComplainVersionView> versions;
+        if(cursor == null){
+            versions = complainRepo.findVersionViewsByManager(username, ComplainStatus.IN_PROCESS, limit);
+        } else {
+            ComplainCursor after = ComplainCursor.decode(cursor);
+            versions = complainRepo.findVersionViewsByManagerAfter(username, ComplainStatus.IN_PROCESS, after.getComplainDate(), after.getId(), limit);
+        }
+        return ETags.strong(versions);
     }
     public ComplainOutputDto getComplainByNumber(String complainNumber){
         return complainService.getComplainByComplainNumber(complainNumber);
     }
-    public void addResponse(String response, String complainNumber){
-        Complain complain = complainRepo.findByComplainNumber(complainNumber).orElseThrow(()->new RuntimeException("Complain Not Found!!"));
-        complain.setComplainResponse(response);
-        complainRepo.save(complain);
+    // only IN_PROCESS complains take a response, ComplainConflictException otherwise
+    public void addResponse(String response, String complainNumber, Principal principal){
+        complainTransitions.respond(complainNumber, response, principal.getName());
+    }
+    public List<BulkItemResult> bulkAddResponse(String response, List<String> complainNumbers, Principal principal){
+        return complainBulkService.respond(complainNumbers, response, principal.getName());
     }
     public List<UserOutputDto> getAllManager(Principal principal){
         if(principal.getName().equals("admin")){
@@ -71,11 +102,13 @@ public class ManagerService {
                 + (managerRepo.countByUsernameStartsWith(username.substring(0,1))+1)).toLowerCase();
 
         manager.setUsername(username);
-        manager.setPassword(config.encoder().encode(username));
+        String initialPassword = username;
+        manager.setPassword(passwordHashingExecutor.call(() -> config.encoder().encode(initialPassword)));
         manager.setEmail(userInputDto.getEmail());
         manager.setFullName(userInputDto.getFullName());
         manager.setMobile(Long.parseLong(userInputDto.getMobile()));
         managerRepo.save(manager);
+        principalCache.invalidate(username);
         return "New Manager Added!!";
     }
 }
@@ -0,0 +1,118 @@
+package com.example.Product.Service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt work (login checks) on its own small pool instead of the Tomcat request threads,
+ * so a burst of logins cannot take the threads that serve everything else.
+ * <p>
+ * At most security.password-hash.concurrency checks run at once and at most
+ * security.password-hash.queue-capacity wait; beyond that {@link #submit} throws
+ * {@link RejectedExecutionException} straight away. A check that has not started within
+ * security.password-hash.timeout completes with a {@link TimeoutException} and is dropped
+ * without hashing; once started it always runs to the end, so no hash is thrown away half done.
+ */
+@Component
+public class PasswordHashingExecutor {
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer hashTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${security.password-hash.concurrency:2}") int concurrency,
+                                   @Value("${security.password-hash.queue-capacity:20}") int queueCapacity,
+                                   @Value("${security.password-hash.timeout:5s}") Duration timeout) {
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+        this.hashTimer = Timer.builder("password.hash.duration").register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hash.wait").register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected").register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // claimed either by the worker starting the hash or by the deadline, whichever comes first
+        AtomicBoolean claimed = new AtomicBoolean();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                if (!claimed.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    result.complete(task.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (claimed.compareAndSet(false, true)) {
+                result.completeExceptionally(new TimeoutException());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Blocking form of {@link #submit} for hashing outside /login (password change, new manager).
+     * The caller waits, but the hashing itself still counts against the pool's limit.
+     */
+    public <T> T call(Supplier<T> task) {
+        try {
+            return submit(task).join();
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("Server Busy, Try Again!!");
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new RuntimeException("Server Busy, Try Again!!");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
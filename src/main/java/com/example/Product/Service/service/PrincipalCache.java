@@ -0,0 +1,65 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.repository.ManagerRepo;
+import com.example.Product.Service.repository.UserRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Authenticated principals ({@code User} for admin, {@code Manager} otherwise) by username, so a
+ * request with a valid token does not have to read its user row again.
+ * <p>
+ * Bounded by security.principal-cache.max-size and expired after security.principal-cache.ttl,
+ * which also bounds how long another app instance can serve a stale copy. Writes to a user or
+ * manager on this instance call {@link #invalidate(String)}. The cached entities are shared
+ * between requests and must be treated as read only; writers load their own copy.
+ */
+@Component
+public class PrincipalCache {
+    private final UserRepo userRepo;
+    private final ManagerRepo managerRepo;
+    private final boolean enabled;
+    private final Cache<String, UserDetails> principals;
+
+    public PrincipalCache(UserRepo userRepo, ManagerRepo managerRepo, MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.enabled:true}") boolean enabled,
+                          @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl:5m}") Duration ttl) {
+        this.userRepo = userRepo;
+        this.managerRepo = managerRepo;
+        this.enabled = enabled;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
+    public Optional<UserDetails> find(String username) {
+        if (!enabled) {
+            return load(username);
+        }
+        // a null from the loader is not cached, unknown usernames always go to the database
+        return Optional.ofNullable(principals.get(username, key -> load(key).orElse(null)));
+    }
+
+    public void invalidate(String username) {
+        principals.invalidate(username);
+    }
+
+    private Optional<UserDetails> load(String username) {
+        if (username.equals("admin")) {
+            return userRepo.findByUsername(username).map(UserDetails.class::cast);
+        }
+        return managerRepo.findByUsername(username).map(UserDetails.class::cast);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.dto.TokenPair;
+import com.example.Product.Service.model.RefreshToken;
+import com.example.Product.Service.repository.RefreshTokenRepo;
+import com.example.Product.Service.util.JWTUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and rotates the refresh tokens that let a client get a new access token without
+ * sending its password (and paying for a BCrypt check) again.
+ * <p>
+ * A refresh token is 256 random bits; only its SHA-256 is stored. Each use revokes it and issues
+ * a successor in the same family. A revoked token that shows up again means it was copied, so the
+ * whole family is revoked and that login has to start over.
+ */
+@Service
+public class RefreshTokenService {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepo refreshTokenRepo;
+    @Autowired
+    private JWTUtil jwtUtil;
+    @Autowired
+    private PrincipalCache principalCache;
+    @Value("${security.refresh-token.ttl:14d}")
+    private Duration ttl;
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    @Transactional
+    public String issue(String username) {
+        refreshTokenRepo.deleteExpired(username, LocalDateTime.now());
+        return create(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * @return a new access token and the refresh token replacing the given one, or empty when
+     * the token is unknown, expired, already used or revoked
+     */
+    @Transactional
+    public Optional<TokenPair> rotate(String rawToken) {
+        Optional<RefreshToken> stored = refreshTokenRepo.findByTokenHash(hash(rawToken));
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken token = stored.get();
+        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        if (refreshTokenRepo.revoke(token.getId()) == 0) {
+            refreshTokenRepo.revokeFamily(token.getFamily());
+            return Optional.empty();
+        }
+        if (principalCache.find(token.getUsername()).isEmpty()) {
+            return Optional.empty();
+        }
+        String refreshToken = create(token.getUsername(), token.getFamily());
+        return Optional.of(new TokenPair(jwtUtil.generateToken(token.getUsername()), refreshToken));
+    }
+
+    @Transactional
+    public void revokeAll(String username) {
+        refreshTokenRepo.revokeAllByUsername(username);
+    }
+
+    private String create(String username, String family) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setUsername(username);
+        token.setFamily(family);
+        token.setExpiresAt(LocalDateTime.now().plus(ttl));
+        refreshTokenRepo.save(token);
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
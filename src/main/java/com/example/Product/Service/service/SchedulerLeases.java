@@ -0,0 +1,70 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.repository.SchedulerLeaseRepo;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Runs a batched job under a scheduler_lease row, so one run works at a time across instances.
+ * <p>
+ * A run takes the lease under its own owner token, also against a second run on the same instance.
+ * Every batch runs in its own transaction that first renews the lease for the TTL; a lost lease,
+ * an empty batch or reaching maxPerRun ends the run, and the lease is released in any case.
+ */
+@Component
+public class SchedulerLeases {
+    private final SchedulerLeaseRepo schedulerLeaseRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    public SchedulerLeases(SchedulerLeaseRepo schedulerLeaseRepo, PlatformTransactionManager transactionManager) {
+        this.schedulerLeaseRepo = schedulerLeaseRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * One batch of a run, called inside the transaction that renewed the lease.
+     */
+    @FunctionalInterface
+    public interface Batch {
+        /**
+         * @param remaining how many items the run may still take
+         * @return how many items this batch took, 0 ends the run
+         */
+        int run(int remaining);
+    }
+
+    /**
+     * @return how many items the run took, 0 when another run holds the lease
+     */
+    public int run(String name, Duration ttl, int maxPerRun, Batch batch) {
+        String owner = UUID.randomUUID().toString();
+        if (!renew(name, owner, ttl)) {
+            return 0;
+        }
+        int total = 0;
+        try {
+            int taken;
+            do {
+                int remaining = maxPerRun - total;
+                Integer result = transactionTemplate.execute(status -> renew(name, owner, ttl) ? batch.run(remaining) : 0);
+                taken = result == null ? 0 : result;
+                total += taken;
+            } while (taken > 0 && total < maxPerRun);
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> schedulerLeaseRepo.release(name, owner, LocalDateTime.now()));
+        }
+        return total;
+    }
+
+    private boolean renew(String name, String owner, Duration ttl) {
+        // joins the batch transaction when there is one
+        Integer acquired = transactionTemplate.execute(status ->
+                schedulerLeaseRepo.acquire(name, owner, LocalDateTime.now(), LocalDateTime.now().plus(ttl)));
+        return acquired != null && acquired == 1;
+    }
+}
@@ -1,28 +1,37 @@
 package com.example.Product.Service.service;
 
 import com.example.Product.Service.config.SecurityConfig;
+import com.example.Product.Service.dto.BulkItemResult;
+import com.example.Product.Service.dto.ComplainCursor;
+import com.example.Product.Service.dto.ComplainListView;
+import com.example.Product.Service.dto.ComplainNumberView;
 import com.example.Product.Service.dto.ComplainOutputDto;
+import com.example.Product.Service.dto.ComplainStatsDto;
+import com.example.Product.Service.dto.CursorPage;
 import com.example.Product.Service.dto.UserInputDto;
 import com.example.Product.Service.dto.UserOutputDto;
 import com.example.Product.Service.enums.ComplainStatus;
-import com.example.Product.Service.model.Complain;
+import com.example.Product.Service.enums.ExportFormat;
 import com.example.Product.Service.model.Manager;
 import com.example.Product.Service.model.User;
 import com.example.Product.Service.repository.ComplainRepo;
 import com.example.Product.Service.repository.ManagerRepo;
 import com.example.Product.Service.repository.UserRepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.security.Principal;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class UserService{
-    @Autowired
-    private MailingService mailingService;
     @Autowired
     private SecurityConfig config;
     @Autowired
@@ -33,16 +42,39 @@ public class UserService{
     private ManagerRepo managerRepo;
     @Autowired
     private ComplainService complainService;
+    @Autowired
+    private PrincipalCache principalCache;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    @Autowired
+    private ComplainStats complainStats;
+    @Autowired
+    private ComplainAutoAssigner complainAutoAssigner;
+    @Autowired
+    private ComplainBulkService complainBulkService;
+    @Autowired
+    private ComplainTransitions complainTransitions;
+    @Autowired
+    private ComplainSearchIndex complainSearchIndex;
+    @Autowired
+    private ComplainTrackingCache complainTrackingCache;
+    @Autowired
+    private ComplainExportService complainExportService;
 
-    public List<String> getAllComplainByStatus(String status){
-        List<Complain> complainList = complainRepo.findAllByStatus(ComplainStatus.valueOf(status));
-        List<String> complainNumberList = new ArrayList<>();
-        for(Complain complain : complainList){
-            String complainNumber;
-            complainNumber = complain.getComplainNumber();
-            complainNumberList.add(complainNumber);
-        }
-        return complainNumberList;
+    public CursorPage<String> getAllComplainByStatus(String status, String cursor, Integer size){
+        ComplainStatus complainStatus = ComplainStatus.valueOf(status);
+        Limit limit = complainService.pageLimit(size);
+        List<ComplainNumberView> views;
+        if(cursor == null){
+            views = complainRepo.findNumberViews(complainStatus, limit);
+        } else {
+            ComplainCursor after = ComplainCursor.decode(cursor);
+            views = complainRepo.findNumberViewsAfter(complainStatus, after.getComplainDate(), after.getId(), limit);
+        }
+        return complainService.toPage(views, limit, ComplainNumberView::getComplainNumber,
+                view -> new ComplainCursor(view.getComplainDate(), view.getId()));
     }
     public List<String> getAllManager(){
         List<String> managerName = new ArrayList<>();
@@ -57,36 +89,98 @@ public class UserService{
     public Manager getManagerByUsername(String username){
         return managerRepo.findByUsername(username).orElseThrow(()->new UsernameNotFoundException("Manager Not Found"));
     }
+    // one guarded UPDATE, ComplainConflictException when the complain is not PENDING or IN_PROCESS any more
     public void assignManager(String complainNumber,String managerUsername){
-        Complain complain = complainRepo.findByComplainNumber(complainNumber).orElseThrow(()->new RuntimeException("Complain not found!!"));
-        complain.setManager(getManagerByUsername(managerUsername));
-        complain.setStatus(ComplainStatus.IN_PROCESS);
-        complainRepo.save(complain);
+        complainTransitions.assign(complainNumber,managerUsername);
     }
-    public List<ComplainOutputDto> getComplainByManagerOrStatus(Manager manager, String status){
-        List<Complain> complainList = complainRepo.findByManagerOrStatus(manager,ComplainStatus.valueOf(status));
-        List<ComplainOutputDto> complainOutputDtos = new ArrayList<>();
-        for(Complain complain : complainList){
-            complainOutputDtos.add(complainService.convertToDto(complain));
+    public CursorPage<ComplainOutputDto> getComplainByManagerOrStatus(Manager manager, String status, String cursor, Integer size){
+        ComplainStatus complainStatus = ComplainStatus.valueOf(status);
+        Limit limit = complainService.pageLimit(size);
+        List<ComplainListView> views;
+        if(cursor == null){
+            views = complainRepo.findListViewsByManagerOrStatus(manager, complainStatus, limit);
+        } else {
+            ComplainCursor after = ComplainCursor.decode(cursor);
+            views = complainRepo.findListViewsByManagerOrStatusAfter(manager, complainStatus, after.getComplainDate(), after.getId(), limit);
         }
-        return complainOutputDtos;
+        return complainService.toPage(views, limit, complainService::convertToDto,
+                view -> new ComplainCursor(view.getComplainDate(), view.getId()));
     }
+    // the mail is queued in the same transaction as the status change
     public void setComplainClosed(String complainNumber){
-        Complain complain = complainRepo.findByComplainNumber(complainNumber).orElseThrow(()->new RuntimeException("Complain Not Found!!"));
-        complain.setStatus(ComplainStatus.CLOSED);
-        String to = complain.getEmail();
-        String subject = "Response generated : " + complainNumber;
-        String body = "Hello,\n\t" + complain.getUsername() + ", your complain has been closed. Please track your complain " +
-                "with Complain Number : " + complainNumber + "\nVisit Here : http://localhost:5173\n\n\nThank You" +
-                "\nManager Name : " + complain.getManager().getFullName() +
-                "\nManager Email : " + complain.getManager().getEmail();
-        System.out.println(body);
-        complainRepo.save(complain);
-//        mailingService.sendsSimpleMail(to,subject,body);
+        complainTransitions.close(complainNumber);
+    }
+    public List<BulkItemResult> bulkAssignManager(List<String> complainNumbers, String managerUsername, Principal principal){
+        if(principal.getName().equals("admin")){
+            return complainBulkService.assign(complainNumbers, managerUsername);
+        }
+        throw new RuntimeException("Unauthorized User!!");
+    }
+    public List<BulkItemResult> bulkSetComplainClosed(List<String> complainNumbers, Principal principal){
+        if(principal.getName().equals("admin")){
+            return complainBulkService.close(complainNumbers);
+        }
+        throw new RuntimeException("Unauthorized User!!");
+    }
+    public int autoAssign(Principal principal){
+        if(principal.getName().equals("admin")){
+            return complainAutoAssigner.assignPending();
+        }
+        throw new RuntimeException("Unauthorized User!!");
+    }
+    public ComplainStatsDto getStats(Principal principal){
+        if(principal.getName().equals("admin")){
+            return complainStats.snapshot();
+        }
+        throw new RuntimeException("Unauthorized User!!");
+    }
+    /**
+     * Full-text search (see {@link ComplainSearchIndex}), best match first. The rows are read from the
+     * database, a complain whose status changed since the index saw it is left out.
+     */
+    public List<ComplainOutputDto> searchComplains(String query, String status, Integer limit, Principal principal){
+        if(!principal.getName().equals("admin")){
+            throw new RuntimeException("Unauthorized User!!");
+        }
+        if(!complainSearchIndex.isReady()){
+            if(complainSearchIndex.getLoadFailure() != null){
+                throw new RuntimeException("Search index could not be loaded, retrying: " + complainSearchIndex.getLoadFailure() + "!!");
+            }
+            throw new RuntimeException("Search index is still loading!!");
+        }
+        ComplainStatus complainStatus = status == null ? null : ComplainStatus.valueOf(status.toUpperCase());
+        List<String> complainNumbers = complainSearchIndex.search(query, complainStatus, complainService.searchLimit(limit));
+        if(complainNumbers.isEmpty()){
+            return List.of();
+        }
+        Map<String, ComplainOutputDto> byNumber = new HashMap<>();
+        for(ComplainOutputDto complainOutputDto : complainRepo.findOutputsByComplainNumberIn(complainNumbers)){
+            byNumber.put(complainOutputDto.getComplainNumber(), complainOutputDto);
+        }
+        List<ComplainOutputDto> complainOutputDtos = new ArrayList<>(complainNumbers.size());
+        for(String complainNumber : complainNumbers){
+            ComplainOutputDto complainOutputDto = byNumber.get(complainNumber);
+            if(complainOutputDto != null && (complainStatus == null || complainOutputDto.getStatus() == complainStatus)){
+                complainOutputDtos.add(complainOutputDto);
+            }
+        }
+        return complainOutputDtos;
+    }
+    /**
+     * Checks the caller and the filters now, the returned body streams the rows when the response is written.
+     */
+    public StreamingResponseBody exportComplains(LocalDate from, LocalDate to, String status, String managerUsername,
+                                                 ExportFormat format, boolean gzip, Principal principal){
+        if(!principal.getName().equals("admin")){
+            throw new RuntimeException("Unauthorized User!!");
+        }
+        ComplainStatus complainStatus = status == null ? null : ComplainStatus.valueOf(status.toUpperCase());
+        return out -> complainExportService.export(from, to, complainStatus, managerUsername, format, gzip, out);
     }
     public UserOutputDto getUser(Principal principal){
+        // the filter already resolved this principal, read it from the cache instead of the database
         if(principal.getName().equals("admin")){
-        User user = userRepo.findByUsername(principal.getName()).orElseThrow(()-> new UsernameNotFoundException("Admin not found!!"));
+        User user = (User) principalCache.find(principal.getName()).orElseThrow(()-> new UsernameNotFoundException("Admin not found!!"));
         UserOutputDto userOutputDto = new UserOutputDto();
         userOutputDto.setFullName(user.getFullName());
         userOutputDto.setMobile(user.getMobile());
@@ -95,7 +189,7 @@ public class UserService{
         return userOutputDto;
         }
         else{
-            Manager manager = managerRepo.findByUsername(principal.getName()).orElseThrow(()->new UsernameNotFoundException("Manager Not Found!!"));
+            Manager manager = (Manager) principalCache.find(principal.getName()).orElseThrow(()->new UsernameNotFoundException("Manager Not Found!!"));
             UserOutputDto userOutputDto = new UserOutputDto();
             userOutputDto.setFullName(manager.getFullName());
             userOutputDto.setMobile(manager.getMobile().toString());
@@ -115,16 +209,21 @@ public class UserService{
             manager.setEmail(userInputDto.getEmail());
             manager.setMobile(Long.parseLong(userInputDto.getMobile()));
             managerRepo.save(manager);
+            // tracking answers and their ETags carry the manager's contact details and version
+            complainTrackingCache.invalidateAll(complainRepo.findComplainNumbersByManager(manager.getUsername()));
         }
+        principalCache.invalidate(principal.getName());
         return "Profile Updated!!";
     }
     public String updatePassword(String currentPassword,String newPassword,String confirmPassword,Principal principal){
         if(principal.getName().equals("admin")) {
             User user = userRepo.findByUsername(principal.getName()).orElseThrow(() -> new UsernameNotFoundException("User not found!!"));
-            if (config.encoder().matches(currentPassword, user.getPassword())) {
+            if (passwordHashingExecutor.call(() -> config.encoder().matches(currentPassword, user.getPassword()))) {
                 if (newPassword.equals(confirmPassword)) {
-                    user.setPassword(config.encoder().encode(newPassword));
+                    user.setPassword(passwordHashingExecutor.call(() -> config.encoder().encode(newPassword)));
                     userRepo.save(user);
+                    principalCache.invalidate(principal.getName());
+                    refreshTokenService.revokeAll(principal.getName());
                     return "Password Updated!!";
                 } else {
                     throw new RuntimeException("New Password and Current Password Not Matched!!");
@@ -134,10 +233,12 @@ public class UserService{
             }
         }else{
             Manager manager = managerRepo.findByUsername(principal.getName()).orElseThrow(() -> new UsernameNotFoundException("User not found!!"));
-            if (config.encoder().matches(currentPassword, manager.getPassword())) {
+            if (passwordHashingExecutor.call(() -> config.encoder().matches(currentPassword, manager.getPassword()))) {
                 if (newPassword.equals(confirmPassword)) {
-                    manager.setPassword(config.encoder().encode(newPassword));
+                    manager.setPassword(passwordHashingExecutor.call(() -> config.encoder().encode(newPassword)));
                     managerRepo.save(manager);
+                    principalCache.invalidate(principal.getName());
+                    refreshTokenService.revokeAll(principal.getName());
                     return "Password Updated!!";
                 } else {
                     throw new RuntimeException("New Password and Current Password Not Matched!!");
@@ -1,6 +1,8 @@
 package com.example.Product.Service.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -13,6 +15,8 @@ import java.util.Date;
 public class JWTUtil {
     public final String SECRET = "hQ3QF4x9dS2b8kP7rVu1XyZc5N0gWmR4tLq8aS9jF2kE7uB1cT6yVwP3mH4rJ0sD";
     public final SecretKey KEY = Keys.hmacShaKeyFor(SECRET.getBytes());
+    // parsers are immutable and thread safe, build the signature checking one once
+    private final JwtParser parser = Jwts.parser().verifyWith(KEY).build();
     public String generateToken(String username){
         return Jwts.builder()
                 .subject(username)
@@ -23,21 +27,32 @@ public class JWTUtil {
     }
 
     public String extractUsername(String token) {
-        Claims body = Jwts.parser()
-                .verifyWith(KEY)
-                .build()
+        Claims body = parser
                 .parseSignedClaims(token)
                 .getPayload();
         return body.getSubject();
     }
 
     public boolean isExpired(String token, String username) {
-        Claims body = Jwts.parser()
-                .verifyWith(KEY)
-                .build()
+        Claims body = parser
                 .parseSignedClaims(token)
                 .getPayload();
         return !(body.getSubject().equals(username) && body.getExpiration().after(new Date()));
 
     }
+
+    /**
+     * Checks signature and expiry with a single parse.
+     * @return the verified token, or null when the token is malformed, forged or expired
+     */
+    public VerifiedToken verify(String token) {
+        try {
+            Claims body = parser
+                    .parseSignedClaims(token)
+                    .getPayload();
+            return new VerifiedToken(body.getSubject(), body.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package com.example.Product.Service.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers tokens whose signature was already checked, so a client repeating the same bearer
+ * token skips the HMAC check and claims parsing until the token's own expiry.
+ * <p>
+ * Entries are keyed by the SHA-256 of the token (raw tokens are never kept), bounded by
+ * security.jwt.cache.max-size and evicted exactly at the token's exp. Hit/miss counts are
+ * published as the {@code cache.*} meters tagged {@code cache=jwt.verified}, the time per check as
+ * {@code jwt.validation} tagged with its result (cached, verified or rejected).
+ */
+@Component
+public class TokenVerifier {
+    private final JWTUtil jwtUtil;
+    private final Cache<String, VerifiedToken> verified;
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    public TokenVerifier(JWTUtil jwtUtil, MeterRegistry meterRegistry,
+                         @Value("${security.jwt.cache.max-size:10000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
+        this.cachedTimer = validationTimer(meterRegistry, "cached");
+        this.verifiedTimer = validationTimer(meterRegistry, "verified");
+        this.rejectedTimer = validationTimer(meterRegistry, "rejected");
+    }
+
+    /**
+     * @return the verified token, or null when it is malformed, forged or expired
+     */
+    public VerifiedToken verify(String token) {
+        long start = System.nanoTime();
+        String key = hash(token);
+        VerifiedToken cached = verified.getIfPresent(key);
+        if (cached != null && cached.getExpiresAt().isAfter(Instant.now())) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        VerifiedToken verifiedToken = jwtUtil.verify(token);
+        if (verifiedToken != null) {
+            verified.put(key, verifiedToken);
+            verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } else {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return verifiedToken;
+    }
+
+    private static Timer validationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.validation").tag("result", result).register(meterRegistry);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
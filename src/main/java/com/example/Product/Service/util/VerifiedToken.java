@@ -0,0 +1,16 @@
+package com.example.Product.Service.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * What is left of a JWT once its signature and expiry have been checked.
+ */
+@Data
+@AllArgsConstructor
+public class VerifiedToken {
+    private String username;
+    private Instant expiresAt;
+}
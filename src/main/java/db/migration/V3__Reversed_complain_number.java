@@ -0,0 +1,55 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds complain_number stored back to front so suffix searches become indexable prefix searches.
+ * The backfill runs in Java because MySQL's REVERSE() has no portable equivalent.
+ */
+public class V3__Reversed_complain_number extends BaseJavaMigration {
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE complain ADD COLUMN reversed_complain_number VARCHAR(255)");
+        }
+        backfill(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX idx_complain_status_reversed ON complain (status, reversed_complain_number)");
+        }
+    }
+
+    private void backfill(Connection connection) throws SQLException {
+        long lastId = Long.MIN_VALUE;
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, complain_number FROM complain WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE complain SET reversed_complain_number = ? WHERE id = ?")) {
+            int rows;
+            do {
+                rows = 0;
+                select.setLong(1, lastId);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastId = resultSet.getLong(1);
+                        String complainNumber = resultSet.getString(2);
+                        update.setString(1, complainNumber == null ? null : new StringBuilder(complainNumber).reverse().toString());
+                        update.setLong(2, lastId);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+                update.executeBatch();
+            } while (rows == BATCH_SIZE);
+        }
+    }
+}
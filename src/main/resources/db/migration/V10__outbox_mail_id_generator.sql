@@ -0,0 +1,9 @@
+-- Outbox mail ids come from the pooled table generator too, so a batch of mails is one JDBC batch.
+-- Start it past every id handed out by the AUTO_INCREMENT column, like the complain row in V2.
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'outbox_mail', 0 FROM (SELECT 1 AS one) seed
+WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE sequence_name = 'outbox_mail');
+
+UPDATE id_generator
+SET next_val = GREATEST(COALESCE(next_val, 0), (SELECT COALESCE(MAX(id), 0) + 100 FROM outbox_mail))
+WHERE sequence_name = 'outbox_mail';
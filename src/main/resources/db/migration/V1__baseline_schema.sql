@@ -0,0 +1,52 @@
+-- Tables as created by the entities before the schema was migration managed.
+-- IF NOT EXISTS lets databases that were built by ddl-auto adopt this history unchanged.
+
+CREATE TABLE IF NOT EXISTS user (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255),
+    full_name VARCHAR(255),
+    mobile VARCHAR(255),
+    password VARCHAR(255),
+    username VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS manager (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    mobile BIGINT,
+    email VARCHAR(255),
+    full_name VARCHAR(255),
+    password VARCHAR(255),
+    username VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_manager_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS complain (
+    id BIGINT NOT NULL,
+    complain_date DATE,
+    manager_id BIGINT,
+    mobile BIGINT,
+    address VARCHAR(255),
+    complain VARCHAR(255),
+    complain_number VARCHAR(255),
+    complain_response VARCHAR(255),
+    email VARCHAR(255),
+    username VARCHAR(255),
+    status ENUM ('CLOSED','IN_PROCESS','PENDING'),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_complain_manager FOREIGN KEY (manager_id) REFERENCES manager (id)
+);
+
+CREATE TABLE IF NOT EXISTS complain_sequence (
+    sequence_date DATE NOT NULL,
+    next_value BIGINT,
+    PRIMARY KEY (sequence_date)
+);
+
+CREATE TABLE IF NOT EXISTS id_generator (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (sequence_name)
+);
@@ -0,0 +1,28 @@
+-- Indexes behind the ComplainRepo lookups.
+
+-- Numbers taken from the day's count could be handed out twice. Every copy but the oldest gets
+-- its id appended ("202501021005-57"); the dash keeps it clear of allocated numbers. The derived
+-- table (DISTINCT stops MySQL from merging it) lets MySQL update the table it reads.
+UPDATE complain
+SET complain_number = CONCAT(complain_number, '-', id)
+WHERE id IN (SELECT id FROM (SELECT DISTINCT c.id FROM complain c
+                             JOIN complain k ON k.complain_number = c.complain_number AND k.id < c.id) duplicate);
+
+-- public tracking, findByComplainNumber
+CREATE UNIQUE INDEX uk_complain_number ON complain (complain_number);
+-- findAllByStatus, ordered by day
+CREATE INDEX idx_complain_status_date ON complain (status, complain_date);
+-- findByManagerAndStatus (the manager dashboard)
+CREATE INDEX idx_complain_manager_status ON complain (manager_id, status);
+-- countByComplainDate
+CREATE INDEX idx_complain_date ON complain (complain_date);
+
+-- Complain ids come from the pooled table generator now. Start it past every id handed out
+-- by the old IDENTITY column; the pooled optimizer uses the block below the stored value.
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'complain', 0 FROM (SELECT 1 AS one) seed
+WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE sequence_name = 'complain');
+
+UPDATE id_generator
+SET next_val = GREATEST(COALESCE(next_val, 0), (SELECT COALESCE(MAX(id), 0) + 100 FROM complain))
+WHERE sequence_name = 'complain';
@@ -0,0 +1,5 @@
+-- Manager listings page in (complain_date, id) order; with complain_date in the index the
+-- keyset range is read in order instead of sorting every IN_PROCESS row of the manager.
+-- InnoDB appends the primary key, so (status, complain_date) already covers the status listing.
+CREATE INDEX idx_complain_manager_status_date ON complain (manager_id, status, complain_date);
+DROP INDEX idx_complain_manager_status ON complain;
@@ -0,0 +1,16 @@
+-- Long-lived refresh tokens, stored as the SHA-256 of the token handed to the client.
+-- Every rotation adds a row to the same family; presenting a revoked token again revokes the family.
+
+CREATE TABLE refresh_token (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    token_hash VARCHAR(64) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    family VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked BOOLEAN NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_token_hash UNIQUE (token_hash)
+);
+
+CREATE INDEX idx_refresh_token_username ON refresh_token (username);
+CREATE INDEX idx_refresh_token_family ON refresh_token (family);
@@ -0,0 +1,16 @@
+-- Mails written in the same transaction as the change they announce, sent later by MailOutboxService.
+
+CREATE TABLE outbox_mail (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255),
+    body VARCHAR(4000),
+    status ENUM ('PENDING','SENT','DEAD') NOT NULL,
+    attempts INT NOT NULL,
+    next_attempt_at DATETIME(6) NOT NULL,
+    last_error VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_outbox_mail_status_next_attempt ON outbox_mail (status, next_attempt_at);
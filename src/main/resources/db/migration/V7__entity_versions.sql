@@ -0,0 +1,4 @@
+-- Optimistic versions, bumped by Hibernate on every update; the tracking and listing ETags are built from them.
+
+ALTER TABLE complain ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE manager ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- Named leases for background jobs that must run on one instance at a time; a row is held while
+-- expires_at is in the future and can be taken over once it has passed.
+
+CREATE TABLE scheduler_lease (
+    name VARCHAR(64) NOT NULL,
+    owner VARCHAR(64),
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (name)
+);
+
+INSERT INTO scheduler_lease (name, owner, expires_at) VALUES ('complain-auto-assign', NULL, '1970-01-01 00:00:00');
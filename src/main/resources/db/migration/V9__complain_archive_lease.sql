@@ -0,0 +1,3 @@
+-- Lease of the job moving old closed complains to the archive segment files.
+
+INSERT INTO scheduler_lease (name, owner, expires_at) VALUES ('complain-archive', NULL, '1970-01-01 00:00:00');
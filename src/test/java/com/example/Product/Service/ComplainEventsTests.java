@@ -0,0 +1,95 @@
+package com.example.Product.Service;
+
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.repository.ManagerRepo;
+import com.example.Product.Service.service.ComplainService;
+import com.example.Product.Service.service.UserService;
+import com.example.Product.Service.util.JWTUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * The admin stream carries every change, a manager's only their own complains, and a reconnect
+ * with Last-Event-ID replays what was missed, or asks for a resync when the id is not of this run.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ComplainEventsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private JWTUtil jwtUtil;
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ManagerRepo managerRepo;
+
+	@Test
+	void eventsAreFilteredAndResumable() throws Exception {
+		TestManagers.ensure(managerRepo, "eventsmanager", "Events Manager");
+		MockHttpServletResponse admin = subscribe("admin", null);
+		MockHttpServletResponse manager = subscribe("eventsmanager", null);
+
+		String assigned = complainService.addComplain(input());
+		String unassigned = complainService.addComplain(input());
+		userService.assignManager(assigned, "eventsmanager");
+
+		awaitContent(admin, "event:created", unassigned, "event:assigned");
+		awaitContent(manager, "event:assigned", assigned);
+		assertThat(manager.getContentAsString()).doesNotContain("event:created").doesNotContain(unassigned);
+
+		String firstId = admin.getContentAsString().lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+		MockHttpServletResponse resumed = subscribe("admin", Long.parseLong(firstId));
+		awaitContent(resumed, unassigned, "event:assigned");
+		assertThat(resumed.getContentAsString()).doesNotContain("id:" + firstId + "\n");
+	}
+
+	@Test
+	void idsOfAnotherRunAskForResync() throws Exception {
+		// ids before a restart are below this run's, ids of a later run or another instance above them
+		awaitContent(subscribe("admin", 1L), "event:resync");
+		awaitContent(subscribe("admin", Long.MAX_VALUE / 2), "event:resync");
+	}
+
+	private MockHttpServletResponse subscribe(String username, Long lastEventId) throws Exception {
+		MockHttpServletRequestBuilder events = get("/events").param("access_token", jwtUtil.generateToken(username));
+		if (lastEventId != null) {
+			events.header("Last-Event-ID", lastEventId);
+		}
+		return mockMvc.perform(events).andExpect(request().asyncStarted()).andReturn().getResponse();
+	}
+
+	// events are sent from the hub's own threads
+	private static void awaitContent(MockHttpServletResponse response, String... expected) throws Exception {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (System.nanoTime() < deadline) {
+			String content = response.getContentAsString();
+			if (Arrays.stream(expected).allMatch(content::contains)) {
+				return;
+			}
+			Thread.sleep(20);
+		}
+		assertThat(response.getContentAsString()).contains(expected);
+	}
+
+	private static ComplainInputDto input() {
+		ComplainInputDto complainInputDto = new ComplainInputDto();
+		complainInputDto.setUsername("customer");
+		complainInputDto.setComplain("Water leaking from pipe");
+		return complainInputDto;
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.Product.Service;
+
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.repository.ManagerRepo;
+import com.example.Product.Service.service.ComplainService;
+import com.example.Product.Service.service.UserService;
+import com.example.Product.Service.util.JWTUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /export streams the filtered complains as CSV (quoted where needed, formulas defused) or gzipped NDJSON, for the admin only.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ComplainExportTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private JWTUtil jwtUtil;
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ManagerRepo managerRepo;
+
+	@Test
+	void exportsFilteredComplains() throws Exception {
+		TestManagers.ensure(managerRepo, "exportmanager", "Export Manager");
+		ComplainInputDto complainInputDto = new ComplainInputDto();
+		complainInputDto.setUsername("customer");
+		complainInputDto.setComplain("Pipe burst, water \"everywhere\"");
+		complainInputDto.setAddress("=HYPERLINK(\"http://evil.example\",\"Open\")");
+		String exported = complainService.addComplain(complainInputDto);
+		String other = complainService.addComplain(complainInputDto);
+		userService.assignManager(exported, "exportmanager");
+
+		MockHttpServletResponse csv = export("admin", "CSV", false);
+		assertThat(csv.getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains("complains.csv");
+		List<String> lines = csv.getContentAsString().lines().toList();
+		assertThat(lines).hasSize(2);
+		assertThat(lines.get(0)).startsWith("complainNumber,complainDate,status");
+		assertThat(lines.get(1)).startsWith(exported + ",").contains(",IN_PROCESS,customer,")
+				.contains(",\"Pipe burst, water \"\"everywhere\"\"\",").contains(",Export Manager,")
+				.contains(",\"'=HYPERLINK(\"\"http://evil.example\"\",\"\"Open\"\")\",");
+
+		MockHttpServletResponse ndjson = export("admin", "NDJSON", true);
+		assertThat(ndjson.getContentType()).isEqualTo("application/gzip");
+		String json = new String(new GZIPInputStream(new ByteArrayInputStream(ndjson.getContentAsByteArray())).readAllBytes(),
+				StandardCharsets.UTF_8);
+		assertThat(json.lines().toList()).hasSize(1).first().asString()
+				.contains("\"complainNumber\":\"" + exported + "\"").doesNotContain(other).doesNotContain("version");
+
+		MvcResult refused = mockMvc.perform(get("/export").param("managerUsername", "exportmanager")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("exportmanager")))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(refused)).andExpect(status().isBadRequest());
+	}
+
+	private MockHttpServletResponse export(String username, String format, boolean gzip) throws Exception {
+		MvcResult started = mockMvc.perform(get("/export").param("managerUsername", "exportmanager")
+						.param("format", format).param("gzip", String.valueOf(gzip))
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(username)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		// the export's own timeout, not the default of every async request
+		assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+		return mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.CONTENT_DISPOSITION))
+				.andReturn().getResponse();
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.Product.Service;
+
+import com.example.Product.Service.repository.ManagerRepo;
+import com.example.Product.Service.util.JWTUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bulk intake takes the admin's token only, as a JSON array or NDJSON, and refuses a request over
+ * complain.bulk.max-size without reading the rest of it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ComplainIntakeTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private JWTUtil jwtUtil;
+	@Autowired
+	private ManagerRepo managerRepo;
+	@Value("${complain.bulk.max-size}")
+	private int maxSize;
+
+	@Test
+	void bulkIntakeIsForTheAdminOnly() throws Exception {
+		TestManagers.ensure(managerRepo, "intakemanager", "Intake Manager");
+		String complains = "[{\"username\":\"partner\",\"complain\":\"No water\"},{\"username\":\"partner\",\"complain\":\"No power\"}]";
+
+		mockMvc.perform(post("/complain/generatecomplains").contentType(MediaType.APPLICATION_JSON).content(complains))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(post("/complain/generatecomplains").contentType(MediaType.APPLICATION_JSON).content(complains)
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("intakemanager")))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/complain/generatecomplains").contentType(MediaType.APPLICATION_JSON).content(complains)
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("admin")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2));
+		mockMvc.perform(post("/complain/generatecomplains").contentType("application/x-ndjson")
+						.content("{\"username\":\"partner\",\"complain\":\"Gas leak\"}\n")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("admin")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1));
+	}
+
+	@Test
+	void oversizedIntakeIsRefused() throws Exception {
+		StringBuilder complains = new StringBuilder("[");
+		for (int i = 0; i <= maxSize; i++) {
+			complains.append(i == 0 ? "" : ",").append("{\"username\":\"partner\"}");
+		}
+		// never closed: the request is refused before the parser gets there
+		mockMvc.perform(post("/complain/generatecomplains").contentType(MediaType.APPLICATION_JSON).content(complains.toString())
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("admin")))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("At most " + maxSize + " complains per request!!"));
+	}
+}
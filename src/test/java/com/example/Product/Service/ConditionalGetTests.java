@@ -0,0 +1,92 @@
+package com.example.Product.Service;
+
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.dto.UserInputDto;
+import com.example.Product.Service.repository.ManagerRepo;
+import com.example.Product.Service.service.ComplainService;
+import com.example.Product.Service.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * An unchanged complain answers If-None-Match with an empty 304; a write, also to the manager's
+ * profile, changes the ETag.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ManagerRepo managerRepo;
+
+	@Test
+	void trackingLookupRevalidates() throws Exception {
+		TestManagers.ensure(managerRepo, "etagmanager", "ETag Manager");
+		ComplainInputDto complainInputDto = new ComplainInputDto();
+		complainInputDto.setUsername("customer");
+		complainInputDto.setComplain("Pothole on main road");
+		String complainNumber = complainService.addComplain(complainInputDto);
+
+		String eTag = mockMvc.perform(get("/complain/getcomplain").param("complainNumber", complainNumber))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(eTag).startsWith("\"");
+
+		mockMvc.perform(get("/complain/getcomplain").param("complainNumber", complainNumber)
+						.header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+
+		userService.assignManager(complainNumber, "etagmanager");
+
+		mockMvc.perform(get("/complain/getcomplain").param("complainNumber", complainNumber)
+						.header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+	}
+
+	@Test
+	void managerProfileEditChangesTheETag() throws Exception {
+		TestManagers.ensure(managerRepo, "etagprofile", "ETag Profile", manager -> {
+			manager.setEmail("old@example.com");
+			manager.setMobile(9000000003L);
+		});
+		ComplainInputDto complainInputDto = new ComplainInputDto();
+		complainInputDto.setUsername("customer");
+		complainInputDto.setComplain("Streetlight out");
+		String complainNumber = complainService.addComplain(complainInputDto);
+		userService.assignManager(complainNumber, "etagprofile");
+		String eTag = mockMvc.perform(get("/complain/getcomplain").param("complainNumber", complainNumber))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		UserInputDto userInputDto = new UserInputDto();
+		userInputDto.setEmail("new@example.com");
+		userInputDto.setMobile("9000000004");
+		userService.updateUser(userInputDto, () -> "etagprofile");
+
+		mockMvc.perform(get("/complain/getcomplain").param("complainNumber", complainNumber)
+						.header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+				.andExpect(content().string(containsString("new@example.com")));
+	}
+}
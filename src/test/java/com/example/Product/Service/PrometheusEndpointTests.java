@@ -0,0 +1,42 @@
+package com.example.Product.Service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The scrape endpoint is reachable without a token and carries the meters the dashboards use.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class PrometheusEndpointTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void scrapeContainsServiceMeters() throws Exception {
+		mockMvc.perform(get("/complain/getcomplain").param("complainNumber", "0"));
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(scrape)
+				.contains("handler=\"ComplainController.getComplainById\"")
+				.contains("spring_data_repository_invocations_seconds_count{")
+				.contains("hikaricp_connections_pending")
+				.contains("hibernate_statements_total")
+				.contains("password_hash_duration_seconds")
+				.contains("mail_outbox_dispatch_seconds")
+				.doesNotContain("complainNumber=\"0\"");
+	}
+}
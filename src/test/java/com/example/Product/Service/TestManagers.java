@@ -0,0 +1,33 @@
+package com.example.Product.Service;
+
+import com.example.Product.Service.model.Manager;
+import com.example.Product.Service.repository.ManagerRepo;
+
+import java.util.function.Consumer;
+
+/**
+ * Test managers, saved once and reused: the tests share one database per context.
+ */
+public final class TestManagers {
+
+	private TestManagers() {
+	}
+
+	public static Manager ensure(ManagerRepo managerRepo, String username, String fullName) {
+		return ensure(managerRepo, username, fullName, manager -> {
+		});
+	}
+
+	/**
+	 * Returns the manager with this username, saving it with {@code details} applied if there is none yet.
+	 */
+	public static Manager ensure(ManagerRepo managerRepo, String username, String fullName, Consumer<Manager> details) {
+		return managerRepo.findByUsername(username).orElseGet(() -> {
+			Manager manager = new Manager();
+			manager.setUsername(username);
+			manager.setFullName(fullName);
+			details.accept(manager);
+			return managerRepo.save(manager);
+		});
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.Product.Service.benchmark;
+
+import com.example.Product.Service.dto.ComplainOutputDto;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of complain listings as the controllers return them, by list size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ComplainJsonBenchmark {
+	@Param({"1", "10", "100", "1000"})
+	private int size;
+
+	private ObjectMapper objectMapper;
+	private List<ComplainOutputDto> complains;
+
+	@Setup
+	public void setUp() {
+		// same settings as the mapper Spring Boot configures for the controllers
+		objectMapper = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+		complains = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			complains.add(new ComplainOutputDto("20251017" + (1001 + i), "customer" + i, 9000000000L + i,
+					"customer" + i + "@example.com", "House " + i + ", Sector 2", "Synthetic complain " + i,
+					LocalDate.of(2025, 10, 17), ComplainStatus.IN_PROCESS, null,
+					"Manager One", "manager1@example.com", 9800000001L, 0L, 0L));
+		}
+	}
+
+	@Benchmark
+	public byte[] writeList() throws Exception {
+		return objectMapper.writeValueAsBytes(complains);
+	}
+}
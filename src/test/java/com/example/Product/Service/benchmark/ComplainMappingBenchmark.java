@@ -0,0 +1,116 @@
+package com.example.Product.Service.benchmark;
+
+import com.example.Product.Service.dto.ComplainListView;
+import com.example.Product.Service.dto.ComplainOutputDto;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.model.Complain;
+import com.example.Product.Service.model.Manager;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.service.ComplainService;
+import com.example.Product.Service.service.ComplainTrackingCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/projection to response DTO mapping in ComplainService, without the database.
+ * <p>
+ * getComplainByComplainNumber runs against a repository stub that hands back a prepared DTO;
+ * the uncached variant disables the tracking cache so every call maps a fresh query result,
+ * the cached one is the repeated-refresh case served from the tracking cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ComplainMappingBenchmark {
+	private ComplainService complainService;
+	private ComplainService uncachedComplainService;
+	private Complain complain;
+	private ComplainListView view;
+
+	@Setup
+	public void setUp() {
+		Manager manager = new Manager();
+		manager.setFullName("Manager One");
+		manager.setEmail("manager1@example.com");
+		manager.setMobile(9800000001L);
+
+		complain = new Complain();
+		complain.setComplainNumber("202510171001");
+		complain.setUsername("customer");
+		complain.setMobile(9000000000L);
+		complain.setEmail("customer@example.com");
+		complain.setAddress("House 1, Sector 2");
+		complain.setComplain("No water supply since morning");
+		complain.setComplainDate(LocalDate.of(2025, 10, 17));
+		complain.setStatus(ComplainStatus.IN_PROCESS);
+		complain.setManager(manager);
+
+		view = new ComplainListView(1L, complain.getComplainDate(), complain.getComplainNumber(), complain.getUsername(),
+				complain.getMobile(), complain.getEmail(), complain.getAddress(), complain.getComplain(), complain.getStatus(),
+				null, manager.getFullName(), manager.getEmail(), manager.getMobile(), 0L, 0L);
+
+		ComplainRepo complainRepo = (ComplainRepo) Proxy.newProxyInstance(ComplainRepo.class.getClassLoader(),
+				new Class<?>[]{ComplainRepo.class}, (proxy, method, args) -> {
+					if (method.getName().equals("findOutputByComplainNumber")) {
+						return Optional.of(pendingOutput((String) args[0]));
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+		complainService = service(complainRepo, Duration.ofMinutes(10));
+		uncachedComplainService = service(complainRepo, Duration.ZERO);
+	}
+
+	private static ComplainService service(ComplainRepo complainRepo, Duration ttl) {
+		ComplainService service = new ComplainService();
+		ReflectionTestUtils.setField(service, "complainRepo", complainRepo);
+		ReflectionTestUtils.setField(service, "complainTrackingCache",
+				new ComplainTrackingCache(new SimpleMeterRegistry(), 1000, ttl, ttl));
+		return service;
+	}
+
+	@Benchmark
+	public ComplainOutputDto convertEntity() {
+		return complainService.convertToDto(complain);
+	}
+
+	@Benchmark
+	public ComplainOutputDto convertListView() {
+		return complainService.convertToDto(view);
+	}
+
+	@Benchmark
+	public ComplainOutputDto getComplainByComplainNumber() {
+		return uncachedComplainService.getComplainByComplainNumber("202510171001");
+	}
+
+	@Benchmark
+	public ComplainOutputDto getComplainByComplainNumberCached() {
+		return complainService.getComplainByComplainNumber("202510171001");
+	}
+
+	private ComplainOutputDto pendingOutput(String complainNumber) {
+		// a fresh instance per call, as the query would return
+		return new ComplainOutputDto(complainNumber, "customer", 9000000000L, "customer@example.com", "House 1, Sector 2",
+				"No water supply since morning", LocalDate.of(2025, 10, 17), ComplainStatus.PENDING, null,
+				null, null, null, 0L, null);
+	}
+}
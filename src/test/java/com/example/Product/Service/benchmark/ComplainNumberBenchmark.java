@@ -0,0 +1,99 @@
+package com.example.Product.Service.benchmark;
+
+import com.example.Product.Service.model.ComplainSequence;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.repository.ComplainSequenceRepo;
+import com.example.Product.Service.service.ComplainNumberAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cost of complain number allocation: taking numbers from the current block and
+ * formatting them, with a block refill every {@code blockSize} numbers.
+ * <p>
+ * The sequence row lives in a stub repository, so a refill costs nothing here; the database
+ * round trip it saves is what ComplainNumberAllocatorTests and the load tests measure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ComplainNumberBenchmark {
+	@Param({"50"})
+	private int blockSize;
+
+	private final LocalDate today = LocalDate.of(2025, 10, 17);
+	private ComplainNumberAllocator allocator;
+
+	@Setup
+	public void setUp() {
+		ComplainSequence sequence = new ComplainSequence();
+		sequence.setSequenceDate(today);
+		sequence.setNextValue(0L);
+		ComplainSequenceRepo sequenceRepo = (ComplainSequenceRepo) Proxy.newProxyInstance(
+				ComplainSequenceRepo.class.getClassLoader(), new Class<?>[]{ComplainSequenceRepo.class},
+				(proxy, method, args) -> switch (method.getName()) {
+					case "findForUpdate" -> Optional.of(sequence);
+					case "save" -> args[0];
+					default -> throw new UnsupportedOperationException(method.getName());
+				});
+		ComplainRepo complainRepo = (ComplainRepo) Proxy.newProxyInstance(ComplainRepo.class.getClassLoader(),
+				new Class<?>[]{ComplainRepo.class}, (proxy, method, args) -> {
+					throw new UnsupportedOperationException(method.getName());
+				});
+		allocator = new ComplainNumberAllocator(sequenceRepo, complainRepo, new NoTransactionManager(), blockSize);
+	}
+
+	@Benchmark
+	public String nextComplainNumber() {
+		return allocator.nextComplainNumber(today);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public String nextComplainNumberContended() {
+		return allocator.nextComplainNumber(today);
+	}
+
+	@Benchmark
+	public List<String> nextComplainNumbersBatchOf500() {
+		return allocator.nextComplainNumbers(today, 500);
+	}
+
+	private static final class NoTransactionManager implements PlatformTransactionManager {
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.Product.Service.benchmark;
+
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.model.Complain;
+import com.example.Product.Service.service.ComplainSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries against the in-memory search index filled with synthetic complains, without the database.
+ * <p>
+ * Texts are drawn from small vocabularies, so "common" hits a large share of the complains and
+ * "rare" a few hundred; "prefix" expands to several terms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ComplainSearchBenchmark {
+	private static final String[] PROBLEMS = {"water", "supply", "leaking", "garbage", "collected", "streetlight",
+			"broken", "flickering", "pothole", "drainage", "blocked", "electricity", "outage", "noise", "stray", "dogs"};
+	private static final String[] PLACES = {"sector", "house", "main", "road", "market", "colony", "lane", "block",
+			"nagar", "park", "station", "gate"};
+
+	@Param("1000000")
+	private int complains;
+
+	private ComplainSearchIndex index;
+
+	@Setup
+	public void setUp() {
+		index = new ComplainSearchIndex(null, null, false, 64, Duration.ofSeconds(30));
+		Random random = new Random(42);
+		List<Complain> batch = new ArrayList<>(10_000);
+		for (int i = 0; i < complains; i++) {
+			Complain complain = new Complain();
+			complain.setComplainNumber(String.valueOf(202510170000000L + i));
+			complain.setUsername("customer" + random.nextInt(complains / 5));
+			complain.setEmail("customer" + random.nextInt(complains / 5) + "@example.com");
+			complain.setAddress(PLACES[random.nextInt(PLACES.length)] + " " + random.nextInt(500) + " "
+					+ PLACES[random.nextInt(PLACES.length)] + " city" + random.nextInt(2000));
+			complain.setComplain(PROBLEMS[random.nextInt(PROBLEMS.length)] + " " + PROBLEMS[random.nextInt(PROBLEMS.length)]
+					+ " " + PROBLEMS[random.nextInt(PROBLEMS.length)] + " since " + random.nextInt(30) + " days");
+			complain.setStatus(ComplainStatus.values()[random.nextInt(3)]);
+			batch.add(complain);
+			if (batch.size() == 10_000) {
+				index.added(batch);
+				batch = new ArrayList<>(10_000);
+			}
+		}
+		index.added(batch);
+	}
+
+	@Benchmark
+	public List<String> rare() {
+		return index.search("customer4711", null, 50);
+	}
+
+	@Benchmark
+	public List<String> rareAndCommon() {
+		return index.search("city1234 water", null, 50);
+	}
+
+	@Benchmark
+	public List<String> common() {
+		return index.search("water leaking", null, 50);
+	}
+
+	@Benchmark
+	public List<String> commonWithStatus() {
+		return index.search("garbage road", ComplainStatus.PENDING, 50);
+	}
+
+	@Benchmark
+	public List<String> prefix() {
+		return index.search("city12 supp", null, 50);
+	}
+}
@@ -0,0 +1,50 @@
+package com.example.Product.Service.benchmark;
+
+import com.example.Product.Service.util.JWTUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The individual JWTUtil operations: signing a token at login/refresh and the two parsing helpers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtUtilBenchmark {
+	private JWTUtil jwtUtil;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtUtil = new JWTUtil();
+		token = jwtUtil.generateToken("manager1");
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtUtil.generateToken("manager1");
+	}
+
+	@Benchmark
+	public String extractUsername() {
+		return jwtUtil.extractUsername(token);
+	}
+
+	@Benchmark
+	public boolean isExpired() {
+		return jwtUtil.isExpired(token, "manager1");
+	}
+}
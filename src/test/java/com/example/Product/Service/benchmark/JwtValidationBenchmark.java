@@ -0,0 +1,65 @@
+package com.example.Product.Service.benchmark;
+
+import com.example.Product.Service.util.JWTUtil;
+import com.example.Product.Service.util.TokenVerifier;
+import com.example.Product.Service.util.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token check done by JWTFilter per request: the old two-parse path against the single parse
+ * with the shared parser and the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtValidationBenchmark {
+	private JWTUtil jwtUtil;
+	private TokenVerifier tokenVerifier;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtUtil = new JWTUtil();
+		tokenVerifier = new TokenVerifier(jwtUtil, new SimpleMeterRegistry(), 10_000);
+		token = jwtUtil.generateToken("admin");
+	}
+
+	/**
+	 * What the filter used to do: extractUsername then isExpired, each with a freshly built parser.
+	 */
+	@Benchmark
+	public boolean twoParsesFreshParser() {
+		Claims first = Jwts.parser().verifyWith(jwtUtil.KEY).build().parseSignedClaims(token).getPayload();
+		String username = first.getSubject();
+		Claims second = Jwts.parser().verifyWith(jwtUtil.KEY).build().parseSignedClaims(token).getPayload();
+		return second.getSubject().equals(username) && second.getExpiration().after(new Date());
+	}
+
+	@Benchmark
+	public VerifiedToken singleParseSharedParser() {
+		return jwtUtil.verify(token);
+	}
+
+	@Benchmark
+	public VerifiedToken cachedVerification() {
+		return tokenVerifier.verify(token);
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.Product.Service.perf;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fills an empty, migrated schema with a synthetic but repeatable data set: the same seed,
+ * manager count and complain count always produce the same rows.
+ * <p>
+ * Complains are spread over the days before {@code lastDay}; roughly 20% are PENDING,
+ * 30% IN_PROCESS and 50% CLOSED, and every non pending complain has a manager.
+ */
+public class ComplainDatasetGenerator {
+	private static final DateTimeFormatter NUMBER_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+	private static final int BATCH_SIZE = 5000;
+
+	private final long seed;
+	private final int managers;
+	private final int complains;
+	private final int days;
+	private final LocalDate lastDay;
+
+	public ComplainDatasetGenerator(long seed, int managers, int complains, int days, LocalDate lastDay) {
+		this.seed = seed;
+		this.managers = managers;
+		this.complains = complains;
+		this.days = days;
+		this.lastDay = lastDay;
+	}
+
+	public void generate(Connection connection) throws SQLException {
+		boolean reversedNumbers = hasReversedNumberColumn(connection);
+		boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+		try {
+			insertManagers(connection);
+			insertComplains(connection, reversedNumbers);
+			try (PreparedStatement statement = connection.prepareStatement(
+					"UPDATE id_generator SET next_val = ? WHERE sequence_name = 'complain'")) {
+				statement.setLong(1, complains + 100L);
+				statement.executeUpdate();
+			}
+			connection.commit();
+		} finally {
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+
+	public String managerUsername(int index) {
+		return "manager" + index;
+	}
+
+	private void insertManagers(Connection connection) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(
+				"INSERT INTO manager (id, username, full_name, email, password, mobile) VALUES (?, ?, ?, ?, ?, ?)")) {
+			for (int i = 1; i <= managers; i++) {
+				statement.setLong(1, i);
+				statement.setString(2, managerUsername(i));
+				statement.setString(3, "Manager " + i);
+				statement.setString(4, "manager" + i + "@example.com");
+				// bcrypt of the username is not needed by the read benchmarks
+				statement.setString(5, "{noop}" + managerUsername(i));
+				statement.setLong(6, 9800000000L + i);
+				statement.addBatch();
+			}
+			statement.executeBatch();
+		}
+	}
+
+	// the column only exists from V3 on, the index benchmark fills a V1 schema
+	private static boolean hasReversedNumberColumn(Connection connection) throws SQLException {
+		try (ResultSet columns = connection.getMetaData().getColumns(null, null, "complain", null)) {
+			while (columns.next()) {
+				if (columns.getString("COLUMN_NAME").equalsIgnoreCase("reversed_complain_number")) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private void insertComplains(Connection connection, boolean reversedNumbers) throws SQLException {
+		Random random = new Random(seed);
+		Map<LocalDate, Integer> perDay = new HashMap<>();
+		try (PreparedStatement statement = connection.prepareStatement(
+				"INSERT INTO complain (id, complain_number, username, mobile, email, address, complain, complain_date,"
+						+ " status, complain_response, manager_id" + (reversedNumbers ? ", reversed_complain_number" : "")
+						+ ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?" + (reversedNumbers ? ", ?" : "") + ")")) {
+			for (int i = 1; i <= complains; i++) {
+				LocalDate day = lastDay.minusDays(random.nextInt(days));
+				int sequence = perDay.merge(day, 1, Integer::sum) - 1;
+				int roll = random.nextInt(10);
+				String status = roll < 2 ? "PENDING" : roll < 5 ? "IN_PROCESS" : "CLOSED";
+
+				String complainNumber = day.format(NUMBER_DATE) + (1001 + sequence);
+				statement.setLong(1, i);
+				statement.setString(2, complainNumber);
+				statement.setString(3, "customer" + random.nextInt(complains));
+				statement.setLong(4, 9000000000L + random.nextInt(1_000_000_000));
+				statement.setString(5, "customer" + i + "@example.com");
+				statement.setString(6, "House " + random.nextInt(500) + ", Sector " + random.nextInt(100));
+				statement.setString(7, "Synthetic complain " + i);
+				statement.setDate(8, Date.valueOf(day));
+				statement.setString(9, status);
+				if (status.equals("PENDING")) {
+					statement.setNull(10, Types.VARCHAR);
+					statement.setNull(11, Types.BIGINT);
+				} else {
+					statement.setString(10, status.equals("CLOSED") ? "Resolved on site" : null);
+					statement.setLong(11, 1 + random.nextInt(managers));
+				}
+				if (reversedNumbers) {
+					statement.setString(12, new StringBuilder(complainNumber).reverse().toString());
+				}
+				statement.addBatch();
+				if (i % BATCH_SIZE == 0) {
+					statement.executeBatch();
+					connection.commit();
+				}
+			}
+			statement.executeBatch();
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package com.example.Product.Service.perf;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Before/after comparison of the ComplainRepo lookups with and without the V2 indexes.
+ * <p>
+ * Opt-in and destructive: it cleans the schema behind {@code perf.jdbc.url}, migrates it to V1,
+ * loads the generated data set, measures, then migrates to the latest version and measures again.
+ * Point it at a throw-away schema, e.g.
+ * <pre>
+ * mvn test -Dtest=ComplainIndexBenchmark -Dperf.jdbc.url=jdbc:mysql://localhost:3306/complain_perf?rewriteBatchedStatements=true \
+ *     -Dperf.jdbc.user=root -Dperf.jdbc.password=secret -Dperf.rows=1000000
+ * </pre>
+ * Query plans and latency percentiles are printed and written to {@code target/perf/index-benchmark.txt}.
+ */
+@EnabledIfSystemProperty(named = "perf.jdbc.url", matches = ".+")
+class ComplainIndexBenchmark {
+	private static final LocalDate LAST_DAY = LocalDate.of(2025, 12, 31);
+	private static final int DAYS = 365;
+	private static final int MANAGERS = 50;
+
+	private final String url = System.getProperty("perf.jdbc.url");
+	private final String user = System.getProperty("perf.jdbc.user", "");
+	private final String password = System.getProperty("perf.jdbc.password", "");
+	private final int rows = Integer.getInteger("perf.rows", 1_000_000);
+	private final int iterations = Integer.getInteger("perf.iterations", 200);
+
+	@Test
+	void compareLookupsBeforeAndAfterIndexes() throws Exception {
+		Flyway before = flyway().target("1").load();
+		before.clean();
+		before.migrate();
+		try (Connection connection = DriverManager.getConnection(url, user, password)) {
+			new ComplainDatasetGenerator(42, MANAGERS, rows, DAYS, LAST_DAY).generate(connection);
+		}
+
+		StringBuilder report = new StringBuilder();
+		report.append("rows=").append(rows).append(" iterations=").append(iterations).append('\n');
+		report.append("\n== before (V1, no indexes) ==\n");
+		measure(report);
+
+		flyway().load().migrate();
+		report.append("\n== after (latest migration) ==\n");
+		measure(report);
+
+		System.out.println(report);
+		Path out = Path.of("target", "perf", "index-benchmark.txt");
+		Files.createDirectories(out.getParent());
+		Files.writeString(out, report);
+	}
+
+	private org.flywaydb.core.api.configuration.FluentConfiguration flyway() {
+		return Flyway.configure().dataSource(url, user, password).cleanDisabled(false);
+	}
+
+	private void measure(StringBuilder report) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(url, user, password)) {
+			Random random = new Random(7);
+			List<Lookup> lookups = List.of(
+					new Lookup("findByComplainNumber", "SELECT * FROM complain WHERE complain_number = ?", iterations,
+							statement -> statement.setString(1, randomDay(random).format(DateTimeFormatter.BASIC_ISO_DATE)
+									+ (1001 + random.nextInt(rows / DAYS)))),
+					new Lookup("findAllByStatus", "SELECT * FROM complain WHERE status = ?", Math.max(1, iterations / 40),
+							statement -> statement.setString(1, "PENDING")),
+					new Lookup("findByManagerAndStatus", "SELECT * FROM complain WHERE manager_id = ? AND status = ?", iterations,
+							statement -> {
+								statement.setLong(1, 1 + random.nextInt(MANAGERS));
+								statement.setString(2, "IN_PROCESS");
+							}),
+					new Lookup("countByComplainDate", "SELECT COUNT(*) FROM complain WHERE complain_date = ?", iterations,
+							statement -> statement.setObject(1, randomDay(random))));
+			for (Lookup lookup : lookups) {
+				report.append(lookup.name).append('\n');
+				report.append("  plan: ").append(explain(connection, lookup)).append('\n');
+				report.append("  ").append(time(connection, lookup)).append('\n');
+			}
+		}
+	}
+
+	private String explain(Connection connection, Lookup lookup) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + lookup.sql)) {
+			lookup.binder.bind(statement);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				ResultSetMetaData meta = resultSet.getMetaData();
+				StringBuilder plan = new StringBuilder();
+				while (resultSet.next()) {
+					for (int column = 1; column <= meta.getColumnCount(); column++) {
+						plan.append(meta.getColumnLabel(column)).append('=').append(resultSet.getString(column)).append(' ');
+					}
+				}
+				return plan.toString().replaceAll("\\s+", " ").trim();
+			}
+		}
+	}
+
+	private String time(Connection connection, Lookup lookup) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(lookup.sql)) {
+			for (int i = 0; i < Math.min(10, lookup.iterations); i++) {
+				run(statement, lookup);
+			}
+			long[] micros = new long[lookup.iterations];
+			long fetched = 0;
+			for (int i = 0; i < lookup.iterations; i++) {
+				long start = System.nanoTime();
+				fetched += run(statement, lookup);
+				micros[i] = (System.nanoTime() - start) / 1000;
+			}
+			Arrays.sort(micros);
+			return String.format("runs=%d avgRows=%d p50=%dus p99=%dus max=%dus", lookup.iterations,
+					fetched / lookup.iterations, percentile(micros, 0.50), percentile(micros, 0.99), micros[micros.length - 1]);
+		}
+	}
+
+	private static int run(PreparedStatement statement, Lookup lookup) throws SQLException {
+		lookup.binder.bind(statement);
+		int count = 0;
+		try (ResultSet resultSet = statement.executeQuery()) {
+			while (resultSet.next()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static long percentile(long[] sorted, double percentile) {
+		return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+	}
+
+	private static LocalDate randomDay(Random random) {
+		return LAST_DAY.minusDays(random.nextInt(DAYS));
+	}
+
+	private record Lookup(String name, String sql, int iterations, Binder binder) {
+	}
+
+	private interface Binder {
+		void bind(PreparedStatement statement) throws SQLException;
+	}
+}
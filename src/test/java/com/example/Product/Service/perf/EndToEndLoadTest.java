@@ -0,0 +1,194 @@
+package com.example.Product.Service.perf;
+
+import com.example.Product.Service.ProductServiceApplication;
+import com.example.Product.Service.util.JWTUtil;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Self-contained end-to-end load test: boots the application on the {@code loadtest} profile
+ * (in-memory H2 plus a GreenMail SMTP server started here), fills it with a generated data set and
+ * drives a weighted mix of public intake, public tracking, admin listing and manager polling.
+ * <p>
+ * Opt-in and offline:
+ * <pre>
+ * mvn test -Dtest=EndToEndLoadTest -Dloadtest=true -Dloadtest.managers=50 -Dloadtest.rows=100000 \
+ *     -Dloadtest.concurrency=32 -Dloadtest.seconds=60 -Dloadtest.mix=intake:10,tracking:50,admin:10,manager:30
+ * </pre>
+ * Per endpoint throughput and percentiles are printed and written to {@code target/perf/end-to-end.txt};
+ * the full HdrHistogram percentile distribution of every endpoint (in ms) goes to
+ * {@code target/perf/end-to-end-<endpoint>.hgrm}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class EndToEndLoadTest {
+	private final int managers = Integer.getInteger("loadtest.managers", 50);
+	private final int rows = Integer.getInteger("loadtest.rows", 50_000);
+	private final int days = Integer.getInteger("loadtest.days", 365);
+	private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+	private final Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10));
+	private final Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 30));
+	private final String mix = System.getProperty("loadtest.mix", "intake:10,tracking:50,admin:10,manager:30");
+
+	private String base;
+	private List<String> complainNumbers;
+	private String adminToken;
+	private List<String> managerTokens;
+
+	@Test
+	void mixedTraffic() throws Exception {
+		GreenMail smtp = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+		smtp.start();
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductServiceApplication.class)
+				.profiles("loadtest")
+				.properties("server.port=0", "spring.mail.port=" + smtp.getSmtp().getPort())
+				.run()) {
+			ComplainDatasetGenerator generator = new ComplainDatasetGenerator(42, managers, rows, days, LocalDate.now());
+			complainNumbers = seed(context, generator);
+			base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+			JWTUtil jwtUtil = context.getBean(JWTUtil.class);
+			adminToken = "Bearer " + jwtUtil.generateToken("admin");
+			managerTokens = new ArrayList<>();
+			for (int i = 1; i <= managers; i++) {
+				managerTokens.add("Bearer " + jwtUtil.generateToken(generator.managerUsername(i)));
+			}
+
+			Map<String, Function<ThreadLocalRandom, LoadDriver.Call>> scenarios = new LinkedHashMap<>();
+			scenarios.put("intake", this::intake);
+			scenarios.put("tracking", this::tracking);
+			scenarios.put("admin", this::adminListing);
+			scenarios.put("manager", this::managerPolling);
+			WeightedMix weightedMix = new WeightedMix(mix, scenarios);
+
+			List<LoadDriver.Result> results = new LoadDriver(concurrency).runMix(warmup, duration,
+					() -> weightedMix.next(ThreadLocalRandom.current()));
+			report(results);
+		} finally {
+			smtp.stop();
+		}
+	}
+
+	private LoadDriver.Call intake(ThreadLocalRandom random) {
+		int customer = random.nextInt(1_000_000);
+		String body = "{\"username\":\"customer" + customer + "\",\"mobile\":" + (9000000000L + customer)
+				+ ",\"email\":\"customer" + customer + "@example.com\",\"address\":\"House " + customer % 500
+				+ "\",\"complain\":\"Load test complain\"}";
+		return new LoadDriver.Call("POST /complain/generatecomplain", HttpRequest.newBuilder(URI.create(base + "/complain/generatecomplain"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build());
+	}
+
+	private LoadDriver.Call tracking(ThreadLocalRandom random) {
+		String complainNumber = complainNumbers.get(random.nextInt(complainNumbers.size()));
+		if (random.nextInt(4) == 0) {
+			String suffix = complainNumber.substring(complainNumber.length() - 4);
+			return new LoadDriver.Call("GET /complain/searchcomplain",
+					get("/complain/searchcomplain?status=CLOSED&complainNumber=" + suffix + "&limit=20", null));
+		}
+		return new LoadDriver.Call("GET /complain/getcomplain", get("/complain/getcomplain?complainNumber=" + complainNumber, null));
+	}
+
+	private LoadDriver.Call adminListing(ThreadLocalRandom random) {
+		String status = random.nextBoolean() ? "PENDING" : "IN_PROCESS";
+		return new LoadDriver.Call("GET /getallcomplain", get("/getallcomplain?status=" + status + "&size=50", adminToken));
+	}
+
+	private LoadDriver.Call managerPolling(ThreadLocalRandom random) {
+		return new LoadDriver.Call("GET /manager/getcomplain",
+				get("/manager/getcomplain?size=20", managerTokens.get(random.nextInt(managerTokens.size()))));
+	}
+
+	private HttpRequest get(String path, String token) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + path)).GET();
+		if (token != null) {
+			builder.header("Authorization", token);
+		}
+		return builder.build();
+	}
+
+	private List<String> seed(ConfigurableApplicationContext context, ComplainDatasetGenerator generator) throws Exception {
+		try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+			generator.generate(connection);
+			List<String> numbers = new ArrayList<>();
+			try (Statement statement = connection.createStatement();
+				 ResultSet resultSet = statement.executeQuery("SELECT complain_number FROM complain ORDER BY id LIMIT 10000")) {
+				while (resultSet.next()) {
+					numbers.add(resultSet.getString(1));
+				}
+			}
+			return numbers;
+		}
+	}
+
+	private void report(List<LoadDriver.Result> results) throws Exception {
+		Path directory = Path.of("target", "perf");
+		Files.createDirectories(directory);
+		StringBuilder report = new StringBuilder();
+		report.append("managers=").append(managers).append(" rows=").append(rows).append(" mix=").append(mix)
+				.append(" seconds=").append(duration.toSeconds()).append('\n');
+		for (LoadDriver.Result result : results) {
+			report.append(result.describe()).append('\n');
+			String file = "end-to-end-" + result.name().replaceAll("[^A-Za-z]+", "-").replaceAll("^-|-$", "") + ".hgrm";
+			try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(file)))) {
+				result.latencies().outputPercentileDistribution(out, 1e6);
+			}
+		}
+		System.out.println(report);
+		Files.writeString(directory.resolve("end-to-end.txt"), report);
+	}
+
+	/**
+	 * Picks scenarios in proportion to weights given as {@code name:weight,...}.
+	 */
+	private static final class WeightedMix {
+		private final List<Function<ThreadLocalRandom, LoadDriver.Call>> scenarios = new ArrayList<>();
+		private final List<Integer> cumulative = new ArrayList<>();
+		private int total;
+
+		WeightedMix(String spec, Map<String, Function<ThreadLocalRandom, LoadDriver.Call>> available) {
+			for (String part : spec.split(",")) {
+				String[] nameAndWeight = part.trim().split(":");
+				Function<ThreadLocalRandom, LoadDriver.Call> scenario = available.get(nameAndWeight[0]);
+				if (scenario == null) {
+					throw new IllegalArgumentException("Unknown scenario " + nameAndWeight[0] + ", expected one of " + available.keySet());
+				}
+				total += Integer.parseInt(nameAndWeight[1]);
+				scenarios.add(scenario);
+				cumulative.add(total);
+			}
+		}
+
+		LoadDriver.Call next(ThreadLocalRandom random) {
+			int roll = random.nextInt(total);
+			for (int i = 0; i < scenarios.size(); i++) {
+				if (roll < cumulative.get(i)) {
+					return scenarios.get(i).apply(random);
+				}
+			}
+			throw new IllegalStateException();
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package com.example.Product.Service.perf;
+
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop HTTP load: a fixed number of workers each send a request, wait for the response and
+ * send the next one, first for a warm-up period that is thrown away and then for the measured
+ * period. Latencies go into an HdrHistogram per worker and endpoint and are merged at the end.
+ * <p>
+ * Closed-loop throughput is what the server sustains at that concurrency, it is not an arrival
+ * rate, so compare runs only when they use the same concurrency.
+ */
+public class LoadDriver {
+	private static final long HIGHEST_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+	private final HttpClient client;
+	private final int concurrency;
+
+	public LoadDriver(int concurrency) {
+		this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * One request labelled with the endpoint it is reported under.
+	 */
+	public record Call(String endpoint, HttpRequest request) {
+	}
+
+	public Result run(String name, Duration warmup, Duration duration, Supplier<HttpRequest> requests) throws Exception {
+		return runMix(warmup, duration, () -> new Call(name, requests.get())).get(0);
+	}
+
+	/**
+	 * Drives whatever mix of calls the supplier produces.
+	 * @return one result per endpoint, by endpoint name
+	 */
+	public List<Result> runMix(Duration warmup, Duration duration, Supplier<Call> calls) throws Exception {
+		drive(warmup, calls);
+		long started = System.nanoTime();
+		List<Worker> workers = drive(duration, calls);
+		long elapsed = System.nanoTime() - started;
+
+		Map<String, Tally> merged = new TreeMap<>();
+		for (Worker worker : workers) {
+			worker.tallies.forEach((endpoint, tally) -> merged.computeIfAbsent(endpoint, key -> new Tally()).add(tally));
+		}
+		List<Result> results = new ArrayList<>();
+		merged.forEach((endpoint, tally) ->
+				results.add(new Result(endpoint, concurrency, elapsed, tally.latencies, tally.errors, tally.throttled)));
+		return results;
+	}
+
+	private List<Worker> drive(Duration duration, Supplier<Call> calls) throws Exception {
+		long deadline = System.nanoTime() + duration.toNanos();
+		List<Worker> workers = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		try {
+			List<Future<?>> running = new ArrayList<>();
+			for (int i = 0; i < concurrency; i++) {
+				Worker worker = new Worker(calls, deadline);
+				workers.add(worker);
+				running.add(executor.submit(worker));
+			}
+			for (Future<?> future : running) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return workers;
+	}
+
+	private static final class Tally {
+		private final Histogram latencies = new Histogram(HIGHEST_LATENCY_NANOS, 3);
+		private long errors;
+		private long throttled;
+
+		private void add(Tally other) {
+			latencies.add(other.latencies);
+			errors += other.errors;
+			throttled += other.throttled;
+		}
+	}
+
+	private class Worker implements Runnable {
+		private final Supplier<Call> calls;
+		private final long deadline;
+		private final Map<String, Tally> tallies = new TreeMap<>();
+
+		Worker(Supplier<Call> calls, long deadline) {
+			this.calls = calls;
+			this.deadline = deadline;
+		}
+
+		@Override
+		public void run() {
+			while (System.nanoTime() < deadline) {
+				Call call = calls.get();
+				Tally tally = tallies.computeIfAbsent(call.endpoint(), key -> new Tally());
+				long start = System.nanoTime();
+				try {
+					HttpResponse<Void> response = client.send(call.request(), HttpResponse.BodyHandlers.discarding());
+					if (response.statusCode() == 429 || response.statusCode() == 503) {
+						tally.throttled++;
+					} else if (response.statusCode() >= 400) {
+						tally.errors++;
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				} catch (Exception e) {
+					tally.errors++;
+				}
+				tally.latencies.recordValue(Math.min(System.nanoTime() - start, HIGHEST_LATENCY_NANOS));
+			}
+		}
+	}
+
+	/**
+	 * @param throttled responses with 429 or 503, counted apart from other errors
+	 */
+	public record Result(String name, int concurrency, long elapsedNanos, Histogram latencies, long errors, long throttled) {
+
+		public long requests() {
+			return latencies.getTotalCount();
+		}
+
+		public double requestsPerSecond() {
+			return requests() * 1e9 / elapsedNanos;
+		}
+
+		public double percentileMillis(double percentile) {
+			return latencies.getValueAtPercentile(percentile) / 1e6;
+		}
+
+		public String describe() {
+			return String.format("%-40s c=%-4d requests=%-8d errors=%-6d throttled=%-8d rps=%10.1f p50=%7.2fms p90=%7.2fms p99=%7.2fms max=%7.2fms",
+					name, concurrency, requests(), errors, throttled, requestsPerSecond(),
+					percentileMillis(50), percentileMillis(90), percentileMillis(99), latencies.getMaxValue() / 1e6);
+		}
+	}
+}
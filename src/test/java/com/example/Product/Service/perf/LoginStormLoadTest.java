@@ -0,0 +1,95 @@
+package com.example.Product.Service.perf;
+
+import com.example.Product.Service.ProductServiceApplication;
+import com.example.Product.Service.TestManagers;
+import com.example.Product.Service.repository.ManagerRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Latency of the public complain endpoint on its own and then while a crowd of clients keeps
+ * posting to /login, to show that BCrypt work stays on the hashing pool and is shed with 429/503
+ * instead of queueing on the request threads.
+ * <p>
+ * Opt-in:
+ * <pre>
+ * mvn test -Dtest=LoginStormLoadTest -Dloadtest=true -Dloadtest.concurrency=16 -Dloadtest.storm=200 -Dloadtest.seconds=20
+ * </pre>
+ * Results are printed and written to {@code target/perf/login-storm.txt}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class LoginStormLoadTest {
+	private static final String MANAGER = "loadtest-manager";
+	private static final String PASSWORD = "password";
+
+	private final int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+	private final int storm = Integer.getInteger("loadtest.storm", 200);
+	private final Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 5));
+	private final Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 20));
+
+	@Test
+	void publicLatencyDuringLoginStorm() throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductServiceApplication.class)
+				.profiles("loadtest")
+				.properties("server.port=0")
+				.run()) {
+			seedManager(context);
+			String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+			LoadDriver publicDriver = new LoadDriver(concurrency);
+
+			LoadDriver.Result quiet = publicDriver.run("GET /complain/searchcomplain (quiet)", warmup, duration,
+					() -> publicRequest(base));
+
+			// the storm starts first and outlasts the measured window on both ends
+			CompletableFuture<LoadDriver.Result> logins = CompletableFuture.supplyAsync(() -> {
+				try {
+					return new LoadDriver(storm).run("POST /login (storm)", Duration.ZERO, warmup.plus(duration).plus(warmup),
+							() -> loginRequest(base));
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			Thread.sleep(warmup.toMillis());
+			LoadDriver.Result stormed = publicDriver.run("GET /complain/searchcomplain (storm)", Duration.ZERO, duration,
+					() -> publicRequest(base));
+
+			String report = quiet.describe() + '\n' + stormed.describe() + '\n' + logins.get().describe() + '\n';
+			System.out.println(report);
+			Path out = Path.of("target", "perf", "login-storm.txt");
+			Files.createDirectories(out.getParent());
+			Files.writeString(out, report);
+		}
+	}
+
+	private void seedManager(ConfigurableApplicationContext context) {
+		ManagerRepo managerRepo = context.getBean(ManagerRepo.class);
+		TestManagers.ensure(managerRepo, MANAGER, "Load Test", manager -> {
+			manager.setPassword(context.getBean(PasswordEncoder.class).encode(PASSWORD));
+			manager.setEmail("loadtest@example.com");
+			manager.setMobile(9000000000L);
+		});
+	}
+
+	private static HttpRequest publicRequest(String base) {
+		return HttpRequest.newBuilder(URI.create(base + "/complain/searchcomplain?status=PENDING&complainNumber=1&limit=20")).GET().build();
+	}
+
+	private static HttpRequest loginRequest(String base) {
+		String body = "{\"username\":\"" + MANAGER + "\",\"password\":\"" + PASSWORD + "\"}";
+		return HttpRequest.newBuilder(URI.create(base + "/login"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+	}
+}
@@ -0,0 +1,88 @@
+package com.example.Product.Service.perf;
+
+import com.example.Product.Service.ProductServiceApplication;
+import com.example.Product.Service.TestManagers;
+import com.example.Product.Service.repository.ManagerRepo;
+import com.example.Product.Service.util.JWTUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Requests per second of the authenticated endpoints a manager dashboard polls, once with
+ * the principal cache and once without it, each against a freshly started application.
+ * <p>
+ * Opt-in; by default it runs on the loadtest profile's in-memory H2 database, which hides most of
+ * the round trip the cache saves. Pass the datasource as system properties to measure against MySQL:
+ * <pre>
+ * mvn test -Dtest=PrincipalCacheLoadTest -Dloadtest=true -Dloadtest.concurrency=32 -Dloadtest.seconds=30 \
+ *     -Dspring.datasource.url=jdbc:mysql://localhost:3306/complain_perf -Dspring.datasource.username=root -Dspring.datasource.password=secret
+ * </pre>
+ * Results are printed and written to {@code target/perf/principal-cache.txt}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class PrincipalCacheLoadTest {
+	private static final String MANAGER = "loadtest-manager";
+
+	private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+	private final Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 5));
+	private final Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 20));
+
+	@Test
+	void compareWithAndWithoutPrincipalCache() throws Exception {
+		List<LoadDriver.Result> results = new ArrayList<>();
+		results.addAll(measure(false));
+		results.addAll(measure(true));
+
+		StringBuilder report = new StringBuilder();
+		for (LoadDriver.Result result : results) {
+			report.append(result.describe()).append('\n');
+		}
+		System.out.println(report);
+		Path out = Path.of("target", "perf", "principal-cache.txt");
+		Files.createDirectories(out.getParent());
+		Files.writeString(out, report);
+	}
+
+	private List<LoadDriver.Result> measure(boolean cached) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductServiceApplication.class)
+				.profiles("loadtest")
+				.properties("server.port=0", "security.principal-cache.enabled=" + cached)
+				.run()) {
+			seedManager(context);
+			String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+			String token = "Bearer " + context.getBean(JWTUtil.class).generateToken(MANAGER);
+			String label = cached ? "cache on " : "cache off ";
+
+			LoadDriver driver = new LoadDriver(concurrency);
+			return List.of(
+					driver.run(label + "GET /getuser", warmup, duration, () -> get(base + "/getuser", token)),
+					driver.run(label + "GET /manager/getcomplain", warmup, duration,
+							() -> get(base + "/manager/getcomplain?size=20", token)));
+		}
+	}
+
+	private void seedManager(ConfigurableApplicationContext context) {
+		ManagerRepo managerRepo = context.getBean(ManagerRepo.class);
+		TestManagers.ensure(managerRepo, MANAGER, "Load Test", manager -> {
+			manager.setPassword(context.getBean(PasswordEncoder.class).encode("password"));
+			manager.setEmail("loadtest@example.com");
+			manager.setMobile(9000000000L);
+		});
+	}
+
+	private static HttpRequest get(String uri, String token) {
+		return HttpRequest.newBuilder(URI.create(uri)).header("Authorization", token).GET().build();
+	}
+}
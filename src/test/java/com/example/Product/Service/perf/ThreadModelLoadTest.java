@@ -0,0 +1,115 @@
+package com.example.Product.Service.perf;
+
+import com.example.Product.Service.ProductServiceApplication;
+import com.example.Product.Service.repository.ManagerRepo;
+import com.example.Product.Service.util.JWTUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Throughput and p99 of a mixed /complain/getcomplain + /manager/getcomplain workload, with
+ * platform request threads and with virtual threads, at each of the given client concurrencies.
+ * <p>
+ * Opt-in. Virtual threads only pay off when requests wait on I/O, so the in-memory H2 default
+ * understates the difference; point the datasource at MySQL for numbers that matter:
+ * <pre>
+ * mvn test -Dtest=ThreadModelLoadTest -Dloadtest=true -Dloadtest.concurrency-levels=50,400 -Dloadtest.seconds=30 \
+ *     -Dspring.datasource.url=jdbc:mysql://localhost:3306/complain_perf -Dspring.datasource.username=root -Dspring.datasource.password=secret
+ * </pre>
+ * The schema must be empty on the first run; results go to {@code target/perf/thread-model.txt}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ThreadModelLoadTest {
+	private static final int MANAGERS = 50;
+
+	private final int rows = Integer.getInteger("loadtest.rows", 20_000);
+	private final int[] concurrencyLevels = Arrays.stream(System.getProperty("loadtest.concurrency-levels", "50,400").split(","))
+			.mapToInt(level -> Integer.parseInt(level.trim())).toArray();
+	private final Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 5));
+	private final Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 20));
+
+	@Test
+	void comparePlatformAndVirtualThreads() throws Exception {
+		List<LoadDriver.Result> results = new ArrayList<>();
+		results.addAll(measure(false));
+		results.addAll(measure(true));
+
+		StringBuilder report = new StringBuilder();
+		for (LoadDriver.Result result : results) {
+			report.append(result.describe()).append('\n');
+		}
+		System.out.println(report);
+		Path out = Path.of("target", "perf", "thread-model.txt");
+		Files.createDirectories(out.getParent());
+		Files.writeString(out, report);
+	}
+
+	private List<LoadDriver.Result> measure(boolean virtual) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductServiceApplication.class)
+				.profiles("loadtest")
+				.properties("server.port=0", "spring.threads.virtual.enabled=" + virtual)
+				.run()) {
+			ComplainDatasetGenerator generator = new ComplainDatasetGenerator(42, MANAGERS, rows, 90, LocalDate.now());
+			List<String> complainNumbers = seed(context, generator);
+			String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+			JWTUtil jwtUtil = context.getBean(JWTUtil.class);
+			List<String> tokens = new ArrayList<>();
+			for (int i = 1; i <= MANAGERS; i++) {
+				tokens.add("Bearer " + jwtUtil.generateToken(generator.managerUsername(i)));
+			}
+
+			List<LoadDriver.Result> results = new ArrayList<>();
+			for (int concurrency : concurrencyLevels) {
+				results.add(new LoadDriver(concurrency).run((virtual ? "virtual" : "platform") + " mixed", warmup, duration,
+						() -> mixedRequest(base, complainNumbers, tokens)));
+			}
+			return results;
+		}
+	}
+
+	private List<String> seed(ConfigurableApplicationContext context, ComplainDatasetGenerator generator) throws Exception {
+		try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+			if (context.getBean(ManagerRepo.class).findByUsername(generator.managerUsername(1)).isEmpty()) {
+				generator.generate(connection);
+			}
+			List<String> complainNumbers = new ArrayList<>();
+			try (Statement statement = connection.createStatement();
+				 ResultSet resultSet = statement.executeQuery("SELECT complain_number FROM complain ORDER BY id LIMIT 5000")) {
+				while (resultSet.next()) {
+					complainNumbers.add(resultSet.getString(1));
+				}
+			}
+			return complainNumbers;
+		}
+	}
+
+	private static HttpRequest mixedRequest(String base, List<String> complainNumbers, List<String> tokens) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		if (random.nextBoolean()) {
+			String complainNumber = complainNumbers.get(random.nextInt(complainNumbers.size()));
+			return HttpRequest.newBuilder(URI.create(base + "/complain/getcomplain?complainNumber=" + complainNumber)).GET().build();
+		}
+		return HttpRequest.newBuilder(URI.create(base + "/manager/getcomplain?size=20"))
+				.header("Authorization", tokens.get(random.nextInt(tokens.size())))
+				.GET()
+				.build();
+	}
+}
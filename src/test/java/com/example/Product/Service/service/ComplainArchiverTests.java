@@ -0,0 +1,121 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.TestManagers;
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.dto.ComplainListView;
+import com.example.Product.Service.dto.ComplainOutputDto;
+import com.example.Product.Service.dto.ComplainStatsDto;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.repository.ManagerRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Archived complains leave the table and are still tracked by number, also by an instance that did not
+ * write them; a torn segment tail is only cut off by the next append.
+ */
+@SpringBootTest
+class ComplainArchiverTests {
+
+	@Autowired
+	private ComplainArchiver complainArchiver;
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private ComplainTransitions complainTransitions;
+	@Autowired
+	private ComplainStats complainStats;
+	@Autowired
+	private ComplainRepo complainRepo;
+	@Autowired
+	private ManagerRepo managerRepo;
+
+	@Test
+	void archivedComplainIsStillTracked() {
+		TestManagers.ensure(managerRepo, "archivemanager", "Archive Manager");
+		ComplainInputDto complainInputDto = new ComplainInputDto();
+		complainInputDto.setUsername("customer");
+		complainInputDto.setComplain("Pothole in front of the gate");
+		complainInputDto.setAddress("Gate 4");
+		String closed = complainService.addComplain(complainInputDto);
+		String open = complainService.addComplain(complainInputDto);
+		complainTransitions.assign(closed, "archivemanager");
+		complainTransitions.respond(closed, "Filled", "archivemanager");
+		complainTransitions.close(closed);
+		complainStats.reconcile();
+
+		assertThat(complainArchiver.archive(LocalDate.now().plusDays(1))).isGreaterThanOrEqualTo(1);
+
+		assertThat(complainRepo.findByComplainNumber(closed)).isEmpty();
+		assertThat(complainRepo.findByComplainNumber(open)).isPresent();
+		ComplainOutputDto archived = complainService.getComplainByComplainNumber(closed);
+		assertThat(archived.getStatus()).isEqualTo(ComplainStatus.CLOSED);
+		assertThat(archived.getAddress()).isEqualTo("Gate 4");
+		assertThat(archived.getComplainResponse()).isEqualTo("Filled");
+		assertThat(archived.getManagerName()).isEqualTo("Archive Manager");
+		assertThat(complainArchiver.archive(LocalDate.now().plusDays(1))).isZero();
+
+		// the in-memory counts followed the removal
+		ComplainStatsDto counts = complainStats.snapshot();
+		complainStats.reconcile();
+		assertThat(complainStats.snapshot().getByStatus()).isEqualTo(counts.getByStatus());
+	}
+
+	@Test
+	void tornTailIsSkippedUntilTheNextAppend(@TempDir Path directory) throws Exception {
+		ComplainArchive archive = new ComplainArchive(directory, 2);
+		archive.append(closed(1001, 5));
+		Path segment = directory.resolve("complains-202501.seg");
+		long size = Files.size(segment);
+		Files.write(segment, new byte[]{0x43, 0x41, 0x52, 0x31, 0, 0}, StandardOpenOption.APPEND);
+
+		// a reader leaves the file alone
+		ComplainArchive reader = new ComplainArchive(directory, 2);
+		assertThat(reader.find("202501021003")).get().extracting(ComplainOutputDto::getAddress).isEqualTo("House 1003");
+		assertThat(reader.find("202501021005")).get().extracting(ComplainOutputDto::getVersion).isEqualTo(3L);
+		assertThat(reader.find("202501021006")).isEmpty();
+		assertThat(reader.find("202502011001")).isEmpty();
+		assertThat(Files.size(segment)).isEqualTo(size + 6);
+
+		// the appender cuts the tail off and writes behind the last complete block
+		reader.append(closed(1006, 1));
+		assertThat(reader.find("202501021006")).isPresent();
+		assertThat(reader.find("202501021001")).isPresent();
+	}
+
+	@Test
+	void appendsOfAnotherInstanceAreSeen(@TempDir Path directory) throws Exception {
+		ComplainArchive writer = new ComplainArchive(directory, 2);
+		ComplainArchive reader = new ComplainArchive(directory, 2);
+		assertThat(reader.find("202501021001")).isEmpty();
+
+		writer.append(closed(1001, 3));
+		assertThat(reader.find("202501021001")).isPresent();
+		assertThat(reader.find("202501021004")).isEmpty();
+
+		writer.append(closed(1004, 3));
+		assertThat(reader.find("202501021004")).isPresent();
+		assertThat(reader.find("202501021006")).get().extracting(ComplainOutputDto::getAddress).isEqualTo("House 1006");
+	}
+
+	private static List<ComplainListView> closed(int firstSequence, int count) {
+		List<ComplainListView> complains = new ArrayList<>();
+		for (int sequence = firstSequence; sequence < firstSequence + count; sequence++) {
+			complains.add(new ComplainListView((long) sequence, LocalDate.of(2025, 1, 2), "20250102" + sequence, "customer", null,
+					null, "House " + sequence, "Complain " + sequence, ComplainStatus.CLOSED, "Done", "Manager", null, null, 3L, 1L));
+		}
+		return complains;
+	}
+}
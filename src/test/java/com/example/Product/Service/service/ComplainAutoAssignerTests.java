@@ -0,0 +1,62 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.TestManagers;
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.model.Complain;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.repository.ManagerRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two engines started together: one holds the lease and assigns every pending complain exactly once.
+ */
+@SpringBootTest
+class ComplainAutoAssignerTests {
+
+	@Autowired
+	private ComplainAutoAssigner complainAutoAssigner;
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private ComplainRepo complainRepo;
+	@Autowired
+	private ManagerRepo managerRepo;
+
+	@Test
+	void concurrentRunsAssignEachComplainOnce() {
+		for (String username : List.of("autoassign1", "autoassign2")) {
+			TestManagers.ensure(managerRepo, username, "Auto Assign");
+		}
+		List<String> complainNumbers = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			ComplainInputDto complainInputDto = new ComplainInputDto();
+			complainInputDto.setUsername("customer");
+			complainInputDto.setComplain("Broken footpath " + i);
+			complainNumbers.add(complainService.addComplain(complainInputDto));
+		}
+		int pending = complainRepo.findAllByStatus(ComplainStatus.PENDING).size();
+
+		CompletableFuture<Integer> first = CompletableFuture.supplyAsync(complainAutoAssigner::assignPending);
+		CompletableFuture<Integer> second = CompletableFuture.supplyAsync(complainAutoAssigner::assignPending);
+		int assigned = first.join() + second.join();
+		// the loser either found the lease held or ran after the winner with nothing left
+		assertThat(assigned).isEqualTo(pending);
+
+		for (String complainNumber : complainNumbers) {
+			Complain complain = complainRepo.findByComplainNumber(complainNumber).orElseThrow();
+			assertThat(complain.getStatus()).isEqualTo(ComplainStatus.IN_PROCESS);
+			assertThat(complain.getManager()).isNotNull();
+			assertThat(complain.getVersion()).isEqualTo(1L);
+		}
+		assertThat(complainRepo.findAllByStatus(ComplainStatus.PENDING)).isEmpty();
+	}
+}
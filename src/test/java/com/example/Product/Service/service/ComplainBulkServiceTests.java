@@ -0,0 +1,68 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.TestManagers;
+import com.example.Product.Service.dto.BulkItemResult;
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.enums.BulkOutcome;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.repository.ManagerRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each bulk operation reports applied, wrong-state and unknown numbers, and what it applied is visible everywhere.
+ */
+@SpringBootTest
+class ComplainBulkServiceTests {
+
+	@Autowired
+	private ComplainBulkService complainBulkService;
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private ComplainRepo complainRepo;
+	@Autowired
+	private ManagerRepo managerRepo;
+
+	@Test
+	void bulkLifecycleReportsEveryItem() {
+		TestManagers.ensure(managerRepo, "bulkmanager", "Bulk Manager", manager -> manager.setEmail("bulk.manager@example.com"));
+		String first = complainService.addComplain(input());
+		String second = complainService.addComplain(input());
+		String pending = complainService.addComplain(input());
+		complainService.getComplainByComplainNumber(first);
+
+		assertThat(complainBulkService.assign(List.of(first, second, "unknown-number", first), "bulkmanager"))
+				.extracting(BulkItemResult::getOutcome)
+				.containsExactly(BulkOutcome.APPLIED, BulkOutcome.APPLIED, BulkOutcome.NOT_FOUND);
+		assertThat(complainBulkService.assign(List.of(first), "bulkmanager"))
+				.containsExactly(new BulkItemResult(first, BulkOutcome.WRONG_STATE, ComplainStatus.IN_PROCESS));
+
+		assertThat(complainBulkService.respond(List.of(first, pending), "Repaired", "bulkmanager"))
+				.extracting(BulkItemResult::getOutcome)
+				.containsExactly(BulkOutcome.APPLIED, BulkOutcome.NOT_FOUND);
+
+		assertThat(complainBulkService.close(List.of(first, pending)))
+				.containsExactly(new BulkItemResult(first, BulkOutcome.APPLIED, ComplainStatus.CLOSED),
+						new BulkItemResult(pending, BulkOutcome.WRONG_STATE, ComplainStatus.PENDING));
+
+		assertThat(complainService.getComplainByComplainNumber(first).getStatus()).isEqualTo(ComplainStatus.CLOSED);
+		assertThat(complainService.getComplainByComplainNumber(first).getComplainResponse()).isEqualTo("Repaired");
+		assertThat(complainRepo.findByComplainNumber(first).orElseThrow().getVersion()).isEqualTo(3L);
+		assertThat(complainRepo.findByComplainNumber(second).orElseThrow().getStatus()).isEqualTo(ComplainStatus.IN_PROCESS);
+	}
+
+	private static ComplainInputDto input() {
+		ComplainInputDto complainInputDto = new ComplainInputDto();
+		complainInputDto.setUsername("customer");
+		complainInputDto.setEmail("customer@example.com");
+		complainInputDto.setComplain("Drain blocked");
+		return complainInputDto;
+	}
+}
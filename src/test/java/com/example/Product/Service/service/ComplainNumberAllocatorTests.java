@@ -0,0 +1,112 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.repository.ComplainSequenceRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ComplainNumberAllocatorTests {
+
+	private static final int SUBMISSIONS = 4000;
+	private static final int THREADS = 32;
+
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private ComplainNumberAllocator complainNumberAllocator;
+	@Autowired
+	private ComplainRepo complainRepo;
+	@Autowired
+	private ComplainSequenceRepo complainSequenceRepo;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void cleanUp() {
+		complainRepo.deleteAll();
+	}
+
+	@Test
+	void parallelSubmissionsGetUniqueNumbers() throws Exception {
+		List<String> numbers = runInParallel(SUBMISSIONS, i -> complainService.addComplain(complainInput(i)));
+
+		assertThat(new HashSet<>(numbers)).hasSize(SUBMISSIONS);
+		assertThat(complainRepo.count()).isEqualTo(SUBMISSIONS);
+	}
+
+	@Test
+	void instancesSharingTheDatabaseNeverOverlap() throws Exception {
+		// a second allocator stands in for another app instance against the same database
+		ComplainNumberAllocator otherInstance = new ComplainNumberAllocator(
+				complainSequenceRepo, complainRepo, transactionManager, 7);
+		LocalDate day = LocalDate.of(2030, 1, 1);
+
+		List<String> numbers = runInParallel(SUBMISSIONS, i -> (i % 2 == 0 ? complainNumberAllocator : otherInstance)
+				.nextComplainNumber(day));
+
+		Set<String> unique = new HashSet<>(numbers);
+		assertThat(unique).hasSize(SUBMISSIONS);
+		assertThat(unique).allMatch(number -> number.startsWith("20300101"));
+	}
+
+	@Test
+	void batchAllocationReturnsIncreasingNumbers() {
+		LocalDate day = LocalDate.of(2030, 2, 1);
+
+		List<String> first = complainNumberAllocator.nextComplainNumbers(day, 120);
+		List<String> second = complainNumberAllocator.nextComplainNumbers(day, 3);
+
+		assertThat(first).hasSize(120).isSorted().doesNotHaveDuplicates();
+		assertThat(first.get(0)).isEqualTo("203002011001");
+		assertThat(second.get(0).compareTo(first.get(119))).isPositive();
+	}
+
+	private static ComplainInputDto complainInput(int i) {
+		ComplainInputDto complainInputDto = new ComplainInputDto();
+		complainInputDto.setUsername("user" + i);
+		complainInputDto.setMobile(9000000000L + i);
+		complainInputDto.setEmail("user" + i + "@example.com");
+		complainInputDto.setAddress("Street " + i);
+		complainInputDto.setComplain("Complain " + i);
+		return complainInputDto;
+	}
+
+	private static List<String> runInParallel(int count, IndexedTask task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Callable<String>> calls = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				int index = i;
+				calls.add(() -> task.run(index));
+			}
+			List<String> results = new ArrayList<>(count);
+			for (Future<String> future : executor.invokeAll(calls)) {
+				results.add(future.get());
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private interface IndexedTask {
+		String run(int index) throws Exception;
+	}
+}
@@ -0,0 +1,155 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.TestManagers;
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.dto.ComplainOutputDto;
+import com.example.Product.Service.dto.CursorPage;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.model.Complain;
+import com.example.Product.Service.model.Manager;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.repository.ManagerRepo;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every read path has to answer with one SQL statement, however many complains and managers it returns.
+ */
+@SpringBootTest
+class ComplainQueryCountTests {
+
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ManagerService managerService;
+	@Autowired
+	private ComplainRepo complainRepo;
+	@Autowired
+	private ManagerRepo managerRepo;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private Manager first;
+	private List<String> complainNumbers;
+
+	@BeforeEach
+	void setUp() {
+		complainRepo.deleteAll();
+		managerRepo.deleteAll();
+		first = manager("countone");
+		Manager second = manager("counttwo");
+
+		List<ComplainInputDto> inputs = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			ComplainInputDto complainInputDto = new ComplainInputDto();
+			complainInputDto.setUsername("customer" + i);
+			complainInputDto.setComplain("Complain " + i);
+			inputs.add(complainInputDto);
+		}
+		complainNumbers = complainService.addComplains(inputs);
+		for (int i = 0; i < 20; i++) {
+			userService.assignManager(complainNumbers.get(i), (i % 2 == 0 ? first : second).getUsername());
+		}
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void managerListingIsOneStatement() {
+		List<ComplainOutputDto> complains = managerService.getComplainByManager(first.getUsername(), null, null).getItems();
+
+		assertThat(complains).hasSize(10).allMatch(dto -> dto.getManagerName().equals("Manager countone"));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void managerOrStatusListingIsOneStatement() {
+		List<ComplainOutputDto> complains = userService.getComplainByManagerOrStatus(first, "PENDING", null, 100).getItems();
+
+		assertThat(complains).hasSize(20);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void statusListingIsOneStatement() {
+		assertThat(userService.getAllComplainByStatus("IN_PROCESS", null, null).getItems()).hasSize(20);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void listingWithoutSizeStopsAtTheDefaultPage() {
+		List<ComplainInputDto> inputs = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			ComplainInputDto complainInputDto = new ComplainInputDto();
+			complainInputDto.setUsername("customer" + i);
+			complainInputDto.setComplain("More " + i);
+			inputs.add(complainInputDto);
+		}
+		complainService.addComplains(inputs);
+
+		CursorPage<String> page = userService.getAllComplainByStatus("PENDING", null, null);
+
+		assertThat(page.getItems()).hasSize(100);
+		assertThat(page.getNextCursor()).isNotNull();
+		assertThat(userService.getAllComplainByStatus("PENDING", page.getNextCursor(), null).getItems()).hasSize(10);
+	}
+
+	@Test
+	void trackingIsOneStatement() {
+		ComplainOutputDto complain = complainService.getComplainByComplainNumber(complainNumbers.get(0));
+
+		assertThat(complain.getManagerName()).isEqualTo("Manager countone");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void suffixSearchIsOneStatement() {
+		List<ComplainOutputDto> complains = complainService.getComplainByComplainNumberAndStatus("IN_PROCESS", "", 100);
+
+		assertThat(complains).hasSize(20).allMatch(dto -> dto.getManagerName() != null);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void suffixWildcardsMatchOnlyThemselves() {
+		String number = complainNumbers.get(0);
+		assertThat(complainService.getComplainByComplainNumberAndStatus("IN_PROCESS", number.substring(number.length() - 4), 100))
+				.extracting(ComplainOutputDto::getComplainNumber).contains(number);
+		assertThat(complainService.getComplainByComplainNumberAndStatus("IN_PROCESS", "%", 100)).isEmpty();
+		assertThat(complainService.getComplainByComplainNumberAndStatus("IN_PROCESS", "_", 100)).isEmpty();
+	}
+
+	@Test
+	void entityListsFetchTheirManagersInTheSameSelect() {
+		List<Complain> inProcess = complainRepo.findAllByStatus(ComplainStatus.IN_PROCESS);
+		List<Complain> byManager = complainRepo.findByManagerAndStatus(first, ComplainStatus.IN_PROCESS);
+		List<Complain> byManagerOrStatus = complainRepo.findByManagerOrStatus(first, ComplainStatus.PENDING);
+		for (List<Complain> complains : List.of(inProcess, byManager, byManagerOrStatus)) {
+			complains.forEach(complainService::convertToDto);
+		}
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+	}
+
+	private Manager manager(String username) {
+		return TestManagers.ensure(managerRepo, username, "Manager " + username, manager -> {
+			manager.setEmail(username + "@example.com");
+			manager.setPassword("unused");
+			manager.setMobile(9800000000L);
+		});
+	}
+}
@@ -0,0 +1,112 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.TestManagers;
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.dto.ComplainSearchView;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.model.Complain;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.repository.ManagerRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The search index follows the write paths: new complains, responses and status changes are
+ * searchable right after they commit. A token expands to at most max-expansions terms, and a failed
+ * load is retried.
+ */
+@SpringBootTest
+class ComplainSearchIndexTests {
+
+	@Autowired
+	private ComplainSearchIndex complainSearchIndex;
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private ComplainTransitions complainTransitions;
+	@Autowired
+	private ManagerRepo managerRepo;
+
+	@Test
+	void searchFollowsWritePaths() throws InterruptedException {
+		for (int i = 0; i < 100 && !complainSearchIndex.isReady(); i++) {
+			Thread.sleep(50);
+		}
+		assertThat(complainSearchIndex.isReady()).isTrue();
+		TestManagers.ensure(managerRepo, "searchmanager", "Search Manager");
+
+		String byAddress = complainService.addComplain(complain("someone", "Streetlight flickering", "Zylophane Road"));
+		String byUsername = complainService.addComplain(complain("zylophane", "Streetlight broken", "Main Road"));
+		complainService.addComplain(complain("other", "Water leaking", "Zylophane Road"));
+
+		// prefix of both, the username weighs more than the address; every token has to match
+		assertThat(complainSearchIndex.search("zyloph streetlight", null, 10)).containsExactly(byUsername, byAddress);
+		assertThat(complainSearchIndex.search("zylophane flickering", null, 10)).containsExactly(byAddress);
+		assertThat(complainSearchIndex.search("zylophane quasar", null, 10)).isEmpty();
+
+		complainTransitions.assign(byAddress, "searchmanager");
+		complainTransitions.respond(byAddress, "Replaced the quasarbulb", "searchmanager");
+		assertThat(complainSearchIndex.search("quasarbulb", null, 10)).containsExactly(byAddress);
+		complainTransitions.respond(byAddress, "Rewired the pole", "searchmanager");
+		assertThat(complainSearchIndex.search("quasarbulb", null, 10)).isEmpty();
+
+		complainTransitions.close(byAddress);
+		assertThat(complainSearchIndex.search("zylophane streetlight", ComplainStatus.CLOSED, 10)).containsExactly(byAddress);
+		assertThat(complainSearchIndex.search("zylophane streetlight", ComplainStatus.PENDING, 10)).containsExactly(byUsername);
+		assertThat(complainSearchIndex.search("zylophane", null, 1)).hasSize(1);
+	}
+
+	@Test
+	void prefixExpansionsCountTheExactTerm() {
+		ComplainSearchIndex index = new ComplainSearchIndex(null, null, false, 2, Duration.ofSeconds(30));
+		List<Complain> complains = new ArrayList<>();
+		for (String text : List.of("quartz", "quartza", "quartzb", "quartzc")) {
+			Complain complain = new Complain();
+			complain.setComplainNumber(text);
+			complain.setComplain(text);
+			complain.setStatus(ComplainStatus.PENDING);
+			complains.add(complain);
+		}
+		index.added(complains);
+
+		assertThat(index.search("quartz", null, 10)).containsExactlyInAnyOrder("quartz", "quartza");
+	}
+
+	@Test
+	void failedLoadIsRetried() throws InterruptedException {
+		ComplainRepo complainRepo = mock(ComplainRepo.class);
+		when(complainRepo.streamSearchViews())
+				.thenThrow(new IllegalStateException("Connection refused"))
+				.thenReturn(Stream.of(new ComplainSearchView("202501021001", "customer", null, "Gate 4", "Pothole",
+						null, ComplainStatus.PENDING)));
+		ComplainSearchIndex index = new ComplainSearchIndex(complainRepo, mock(PlatformTransactionManager.class), true, 64,
+				Duration.ofMillis(50));
+
+		index.startLoading();
+		for (int i = 0; i < 100 && !index.isReady(); i++) {
+			Thread.sleep(20);
+		}
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.getLoadFailure()).isNull();
+		assertThat(index.search("pothole", null, 10)).containsExactly("202501021001");
+	}
+
+	private static ComplainInputDto complain(String username, String text, String address) {
+		ComplainInputDto complainInputDto = new ComplainInputDto();
+		complainInputDto.setUsername(username);
+		complainInputDto.setComplain(text);
+		complainInputDto.setAddress(address);
+		return complainInputDto;
+	}
+}
@@ -0,0 +1,57 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.TestManagers;
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.dto.ComplainStatsDto;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.repository.ManagerRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The write paths move the in-memory counts exactly as a recount from the database would.
+ */
+@SpringBootTest
+class ComplainStatsTests {
+
+	@Autowired
+	private ComplainStats complainStats;
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ManagerRepo managerRepo;
+
+	@Test
+	void incrementalCountsMatchRecount() {
+		TestManagers.ensure(managerRepo, "statsmanager", "Stats Manager");
+		complainStats.reconcile();
+		ComplainStatsDto before = complainStats.snapshot();
+
+		ComplainInputDto complainInputDto = new ComplainInputDto();
+		complainInputDto.setUsername("customer");
+		complainInputDto.setComplain("Garbage not collected");
+		String closed = complainService.addComplain(complainInputDto);
+		String open = complainService.addComplain(complainInputDto);
+		complainService.addComplain(complainInputDto);
+		userService.assignManager(closed, "statsmanager");
+		userService.assignManager(open, "statsmanager");
+		userService.setComplainClosed(closed);
+
+		ComplainStatsDto after = complainStats.snapshot();
+		assertThat(after.getByStatus().get(ComplainStatus.PENDING) - before.getByStatus().get(ComplainStatus.PENDING)).isEqualTo(1);
+		assertThat(after.getByStatus().get(ComplainStatus.IN_PROCESS) - before.getByStatus().get(ComplainStatus.IN_PROCESS)).isEqualTo(1);
+		assertThat(after.getByStatus().get(ComplainStatus.CLOSED) - before.getByStatus().get(ComplainStatus.CLOSED)).isEqualTo(1);
+		assertThat(after.getByManager().get("statsmanager").get(ComplainStatus.IN_PROCESS)).isGreaterThanOrEqualTo(1);
+		assertThat(after.getByDay().get(LocalDate.now()) - before.getByDay().getOrDefault(LocalDate.now(), 0L)).isEqualTo(3);
+
+		complainStats.reconcile();
+		assertThat(complainStats.snapshot()).isEqualTo(after);
+	}
+}
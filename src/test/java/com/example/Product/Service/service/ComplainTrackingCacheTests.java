@@ -0,0 +1,77 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.TestManagers;
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.repository.ManagerRepo;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Repeated tracking lookups stay off the database, and every write path shows up on the next lookup.
+ */
+@SpringBootTest
+class ComplainTrackingCacheTests {
+
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ManagerService managerService;
+	@Autowired
+	private ManagerRepo managerRepo;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		TestManagers.ensure(managerRepo, "trackingmanager", "Tracking Manager", manager -> manager.setMobile(9000000003L));
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void repeatedLookupsHitTheDatabaseOnce() {
+		String complainNumber = complainService.addComplain(input());
+		statistics.clear();
+
+		complainService.getComplainByComplainNumber(complainNumber);
+		complainService.getComplainByComplainNumber(complainNumber);
+		assertThatThrownBy(() -> complainService.getComplainByComplainNumber("unknown-number")).hasMessage("No Complain Found!!");
+		assertThatThrownBy(() -> complainService.getComplainByComplainNumber("unknown-number")).hasMessage("No Complain Found!!");
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void writesInvalidateTheCachedAnswer() {
+		String complainNumber = complainService.addComplain(input());
+		assertThat(complainService.getComplainByComplainNumber(complainNumber).getStatus()).isEqualTo(ComplainStatus.PENDING);
+
+		userService.assignManager(complainNumber, "trackingmanager");
+		assertThat(complainService.getComplainByComplainNumber(complainNumber).getManagerName()).isEqualTo("Tracking Manager");
+
+		managerService.addResponse("Fixed", complainNumber, () -> "trackingmanager");
+		assertThat(complainService.getComplainByComplainNumber(complainNumber).getComplainResponse()).isEqualTo("Fixed");
+
+		userService.setComplainClosed(complainNumber);
+		assertThat(complainService.getComplainByComplainNumber(complainNumber).getStatus()).isEqualTo(ComplainStatus.CLOSED);
+	}
+
+	private static ComplainInputDto input() {
+		ComplainInputDto complainInputDto = new ComplainInputDto();
+		complainInputDto.setUsername("customer");
+		complainInputDto.setComplain("Street light broken");
+		return complainInputDto;
+	}
+}
@@ -0,0 +1,138 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.TestManagers;
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.enums.ComplainStatus;
+import com.example.Product.Service.model.Complain;
+import com.example.Product.Service.repository.ComplainRepo;
+import com.example.Product.Service.repository.ManagerRepo;
+import com.example.Product.Service.repository.OutboxMailRepo;
+import com.example.Product.Service.util.JWTUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Many threads race assign, respond and close on the same complains: every change that reports
+ * success is in the final row, each complain is closed (and mailed) exactly once, the losers get
+ * conflicts and nothing else. An unknown complain number is a 404.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ComplainTransitionsTests {
+	private static final int THREADS = 12;
+	private static final int COMPLAINS = 8;
+
+	@Autowired
+	private ComplainTransitions complainTransitions;
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private ComplainRepo complainRepo;
+	@Autowired
+	private ManagerRepo managerRepo;
+	@Autowired
+	private OutboxMailRepo outboxMailRepo;
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private JWTUtil jwtUtil;
+
+	@Test
+	void racingTransitionsLoseNoUpdate() throws Exception {
+		List<String> managers = List.of("racemanager1", "racemanager2");
+		for (String username : managers) {
+			TestManagers.ensure(managerRepo, username, "Race Manager");
+		}
+		List<String> complainNumbers = new ArrayList<>();
+		for (int i = 0; i < COMPLAINS; i++) {
+			ComplainInputDto complainInputDto = new ComplainInputDto();
+			complainInputDto.setUsername("customer");
+			complainInputDto.setEmail("race" + i + "-" + System.nanoTime() + "@example.com");
+			complainInputDto.setComplain("Transformer sparking " + i);
+			complainNumbers.add(complainService.addComplain(complainInputDto));
+		}
+
+		Map<String, AtomicInteger> applied = new ConcurrentHashMap<>();
+		Map<String, AtomicInteger> closed = new ConcurrentHashMap<>();
+		for (String complainNumber : complainNumbers) {
+			applied.put(complainNumber, new AtomicInteger());
+			closed.put(complainNumber, new AtomicInteger());
+		}
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			String manager = managers.get(t % managers.size());
+			futures.add(executor.submit(() -> {
+				start.await();
+				List<String> order = new ArrayList<>(complainNumbers);
+				Collections.shuffle(order);
+				for (String complainNumber : order) {
+					attempt(() -> complainTransitions.assign(complainNumber, manager), applied.get(complainNumber));
+					attempt(() -> complainTransitions.respond(complainNumber, "Handled by " + manager, manager), applied.get(complainNumber));
+					if (attempt(() -> complainTransitions.close(complainNumber), applied.get(complainNumber))) {
+						closed.get(complainNumber).incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		for (String complainNumber : complainNumbers) {
+			Complain complain = complainRepo.findByComplainNumber(complainNumber).orElseThrow();
+			assertThat(complain.getStatus()).isEqualTo(ComplainStatus.CLOSED);
+			assertThat(closed.get(complainNumber)).hasValue(1);
+			// every successful change bumped the version once, none was overwritten
+			assertThat(complain.getVersion()).isEqualTo(applied.get(complainNumber).get());
+			assertThat(outboxMailRepo.findAll()).filteredOn(mail -> mail.getRecipient().equals(complain.getEmail())).hasSize(1);
+		}
+	}
+
+	@Test
+	void unknownComplainIsNotFound() throws Exception {
+		TestManagers.ensure(managerRepo, "racemanager1", "Race Manager");
+		String admin = "Bearer " + jwtUtil.generateToken("admin");
+		mockMvc.perform(put("/assignmanager").param("complainNumber", "19990101999").param("managerUsername", "racemanager1")
+						.header(HttpHeaders.AUTHORIZATION, admin))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(put("/closecomplain").param("complainNumber", "19990101999").header(HttpHeaders.AUTHORIZATION, admin))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(put("/manager/addresponse").param("complainNumber", "19990101999").param("response", "Done")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("racemanager1")))
+				.andExpect(status().isNotFound());
+	}
+
+	private static boolean attempt(Runnable transition, AtomicInteger applied) {
+		try {
+			transition.run();
+			applied.incrementAndGet();
+			return true;
+		} catch (ComplainConflictException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.TestManagers;
+import com.example.Product.Service.dto.ComplainInputDto;
+import com.example.Product.Service.enums.MailStatus;
+import com.example.Product.Service.model.Manager;
+import com.example.Product.Service.model.OutboxMail;
+import com.example.Product.Service.repository.ManagerRepo;
+import com.example.Product.Service.repository.OutboxMailRepo;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Closing a complain only writes an outbox row; the dispatcher delivers it to a local SMTP stub,
+ * retries when the server is down and dead-letters after the last attempt. A drain stops when the
+ * server is down, SENT mails are purged after the retention. The mails of a bulk close go into the
+ * outbox as one JDBC batch.
+ */
+@SpringBootTest
+class MailOutboxServiceTests {
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	@Autowired
+	private MailOutboxService mailOutboxService;
+	@Autowired
+	private ComplainService complainService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ManagerRepo managerRepo;
+	@Autowired
+	private OutboxMailRepo outboxMailRepo;
+	@Autowired
+	private MailingService mailingService;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Value("${mail.outbox.max-attempts}")
+	private int maxAttempts;
+	@Value("${mail.outbox.batch-size}")
+	private int batchSize;
+
+	@BeforeEach
+	void setUp() {
+		outboxMailRepo.deleteAll();
+		TestManagers.ensure(managerRepo, "mailmanager", "Mail Manager", manager -> {
+			manager.setEmail("manager@example.com");
+			manager.setMobile(9000000002L);
+		});
+	}
+
+	@Test
+	void closingQueuesMailAndDispatcherSendsIt() throws Exception {
+		closeComplain("customer@example.com");
+
+		assertThat(greenMail.getReceivedMessages()).isEmpty();
+		assertThat(outboxMailRepo.countByStatus(MailStatus.PENDING)).isEqualTo(1);
+
+		assertThat(mailOutboxService.dispatch()).isEqualTo(1);
+
+		MimeMessage[] received = greenMail.getReceivedMessages();
+		assertThat(received).hasSize(1);
+		assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("customer@example.com");
+		assertThat(outboxMailRepo.countByStatus(MailStatus.SENT)).isEqualTo(1);
+		assertThat(mailOutboxService.dispatch()).isZero();
+	}
+
+	@Test
+	void failedSendIsRetriedLaterThenDeadLettered() {
+		closeComplain("customer@example.com");
+		greenMail.stop();
+
+		mailOutboxService.dispatch();
+		OutboxMail retried = outboxMailRepo.findAll().get(0);
+		assertThat(retried.getStatus()).isEqualTo(MailStatus.PENDING);
+		assertThat(retried.getAttempts()).isEqualTo(1);
+		assertThat(retried.getNextAttemptAt()).isAfter(LocalDateTime.now());
+		assertThat(mailOutboxService.dispatch()).isZero();
+
+		retried.setAttempts(maxAttempts - 1);
+		retried.setNextAttemptAt(LocalDateTime.now());
+		outboxMailRepo.save(retried);
+		mailOutboxService.dispatch();
+
+		List<OutboxMail> mails = outboxMailRepo.findAll();
+		assertThat(mails.get(0).getStatus()).isEqualTo(MailStatus.DEAD);
+		assertThat(mails.get(0).getLastError()).isNotBlank();
+	}
+
+	@Test
+	void drainStopsAtTheFirstBatchThatCannotConnect() {
+		List<SimpleMailMessage> messages = new ArrayList<>();
+		for (int i = 0; i <= batchSize; i++) {
+			messages.add(mailingService.simpleMail("customer" + i + "@example.com", "Closed", "Your complain was closed"));
+		}
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> mailOutboxService.enqueueAll(messages));
+		greenMail.stop();
+
+		mailOutboxService.drain();
+
+		assertThat(outboxMailRepo.findAll()).filteredOn(mail -> mail.getAttempts() == 1).hasSize(batchSize);
+		assertThat(outboxMailRepo.findAll()).filteredOn(mail -> mail.getAttempts() == 0).hasSize(1);
+	}
+
+	@Test
+	void sentMailsArePurgedAfterRetention() throws Exception {
+		closeComplain("old@example.com");
+		closeComplain("new@example.com");
+		mailOutboxService.dispatch();
+		OutboxMail old = outboxMailRepo.findAll().stream()
+				.filter(mail -> mail.getRecipient().equals("old@example.com")).findFirst().orElseThrow();
+		old.setCreatedAt(LocalDateTime.now().minusDays(60));
+		outboxMailRepo.save(old);
+
+		assertThat(mailOutboxService.purgeSent(LocalDateTime.now().minusDays(30))).isEqualTo(1);
+		assertThat(outboxMailRepo.findAll()).extracting(OutboxMail::getRecipient).containsExactly("new@example.com");
+	}
+
+	@Test
+	void mailsOfABulkCloseAreInsertedAsOneBatch() {
+		List<SimpleMailMessage> messages = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			messages.add(mailingService.simpleMail("customer" + i + "@example.com", "Closed", "Your complain was closed"));
+		}
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> mailOutboxService.enqueueAll(messages));
+
+		assertThat(outboxMailRepo.countByStatus(MailStatus.PENDING)).isEqualTo(20);
+		// one batched INSERT plus the id block read and bumped, not one INSERT per mail
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(5);
+	}
+
+	private void closeComplain(String email) {
+		ComplainInputDto complainInputDto = new ComplainInputDto();
+		complainInputDto.setUsername("customer");
+		complainInputDto.setEmail(email);
+		complainInputDto.setComplain("No water");
+		String complainNumber = complainService.addComplain(complainInputDto);
+		userService.assignManager(complainNumber, "mailmanager");
+		userService.setComplainClosed(complainNumber);
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.Product.Service.service;
+
+import com.example.Product.Service.TestManagers;
+import com.example.Product.Service.dto.TokenPair;
+import com.example.Product.Service.repository.ManagerRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A refresh token works exactly once; replaying a used one ends the whole login.
+ */
+@SpringBootTest
+class RefreshTokenServiceTests {
+	private static final String USERNAME = "refreshmanager";
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+	@Autowired
+	private ManagerRepo managerRepo;
+
+	@BeforeEach
+	void setUp() {
+		TestManagers.ensure(managerRepo, USERNAME, null, manager -> manager.setMobile(9000000001L));
+	}
+
+	@Test
+	void rotationIssuesSuccessorAndRejectsReplay() {
+		String issued = refreshTokenService.issue(USERNAME);
+
+		TokenPair rotated = refreshTokenService.rotate(issued).orElseThrow();
+		assertThat(rotated.getAccessToken()).isNotBlank();
+		assertThat(rotated.getRefreshToken()).isNotEqualTo(issued);
+
+		// replaying the first token revokes its successor as well
+		assertThat(refreshTokenService.rotate(issued)).isEmpty();
+		assertThat(refreshTokenService.rotate(rotated.getRefreshToken())).isEmpty();
+	}
+
+	@Test
+	void revokeAllEndsEveryLogin() {
+		String first = refreshTokenService.issue(USERNAME);
+		String second = refreshTokenService.issue(USERNAME);
+
+		refreshTokenService.revokeAll(USERNAME);
+
+		assertThat(refreshTokenService.rotate(first)).isEmpty();
+		assertThat(refreshTokenService.rotate(second)).isEmpty();
+	}
+
+	@Test
+	void unknownTokenIsRejected() {
+		assertThat(refreshTokenService.rotate("not-a-token")).isEmpty();
+	}
+}